@@ -17,9 +17,12 @@ public class ConnectionToDB {
     }
 
     public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    public static HikariDataSource getDataSource() {
         HikariConfig config = new HikariConfig(fileName);
-        HikariDataSource ds = new HikariDataSource(config);
-        ds.setMinimumIdle(1);
-        return ds.getConnection();
+        config.setMinimumIdle(1);
+        return new HikariDataSource(config);
     }
 }
@@ -1,22 +1,49 @@
 package com.ormanager.orm;
 
-import com.ormanager.orm.annotation.Id;
+import com.ormanager.orm.metadata.ColumnMetadata;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * First-level cache of one {@link OrmManager}. Access is synchronized, so results completed by the
+ * {@link CoalescingLoader} thread can be cached while callers read.
+ */
 @Slf4j(topic = "CacheLog")
 class Cache {
 
     private final Map<Class<?>, Map<Serializable, Object>> cacheMap;
+    /**
+     * Values of the update columns of every cached record as they were when it was put in the cache, with the
+     * parent's id in place of a {@code @ManyToOne} reference.
+     */
+    private final Map<Class<?>, Map<Serializable, Object[]>> snapshots;
+    /**
+     * Identity map of the cached instances, all {@link EntityState#MANAGED}.
+     */
+    private final Map<Object, EntityState> states;
+    /**
+     * Instances deleted since the last {@link #clearCache()}, {@link EntityState#REMOVED}. They are compared by
+     * identity and held weakly, so the cache does not keep a deleted instance reachable.
+     */
+    private final Set<RemovedInstance> removedInstances;
+    private final ReferenceQueue<Object> collectedRemoved;
 
     Cache() {
         cacheMap = new HashMap<>();
+        snapshots = new HashMap<>();
+        states = new IdentityHashMap<>();
+        removedInstances = new HashSet<>();
+        collectedRemoved = new ReferenceQueue<>();
     }
 
-    <T> Long count(Class<T> clazz) {
+    synchronized <T> Long count(Class<T> clazz) {
 
         long result = cacheMap.get(clazz).entrySet().size();
         LOGGER.info("Number of records in cache: {}", result);
@@ -24,20 +51,27 @@ class Cache {
         return result;
     }
 
-    void putToCache(Object recordToPut) {
+    synchronized void putToCache(Object recordToPut) {
 
         Serializable recordId = getRecordId(recordToPut);
         Class<?> keyClazz = recordToPut.getClass();
 
         LOGGER.info("Record to put: {}. Record ID: {}.", recordToPut, recordId);
 
-        cacheMap.computeIfAbsent(keyClazz, k -> new HashMap<>())
+        var replaced = cacheMap.computeIfAbsent(keyClazz, k -> new HashMap<>())
                 .put(recordId, recordToPut);
+        if (replaced != null && replaced != recordToPut) {
+            states.remove(replaced);
+        }
+        states.put(recordToPut, EntityState.MANAGED);
+        removedInstances.remove(new RemovedInstance(recordToPut, null));
+        snapshots.computeIfAbsent(keyClazz, k -> new HashMap<>())
+                .put(recordId, snapshot(recordToPut));
 
         LOGGER.info("Put is successful.");
     }
 
-    <T> Optional<T> getFromCache(Serializable recordId, Class<T> clazz) {
+    synchronized <T> Optional<T> getFromCache(Serializable recordId, Class<T> clazz) {
 
         if (cacheMap.get(clazz) == null) return Optional.empty();
 
@@ -48,13 +82,13 @@ class Cache {
 
     }
 
-    <T> List<T> getAllFromCache(Class<?> clazz) {
+    synchronized <T> List<T> getAllFromCache(Class<?> clazz) {
 
         var values = cacheMap.get(clazz).values();
         return (List<T>) Arrays.asList(values.toArray());
     }
 
-    void deleteFromCache(Object recordToDelete) {
+    synchronized void deleteFromCache(Object recordToDelete) {
 
         Serializable recordId = getRecordId(recordToDelete);
         Class<?> keyClazz = recordToDelete.getClass();
@@ -62,13 +96,129 @@ class Cache {
         setObjectIdToNull(recordToDelete);
 
         cacheMap.get(keyClazz).remove(recordId, recordToDelete);
+        removeSnapshot(keyClazz, recordId);
+        markRemoved(recordToDelete);
 
         if (!isRecordInCache(recordId, keyClazz)) {
             LOGGER.info("{} deleted successfully from cache.", recordToDelete);
         }
     }
 
-    boolean isRecordInCache(Serializable recordId, Class<?> clazz) {
+    /**
+     * Removes the records of one class with the given ids together with the cached children, found through
+     * {@code @OneToMany}, whose parent is one of them. Removed records get their id set to null.
+     *
+     * @return number of removed records, children included
+     */
+    synchronized int deleteFromCache(Class<?> clazz, Collection<? extends Serializable> recordIds) {
+        Set<Serializable> ids = Set.copyOf(recordIds);
+        int removed = 0;
+
+        for (var relationship : getMetadata(clazz).getOneToManyRelationships()) {
+            var childClass = relationship.getTargetClass();
+            var children = cacheMap.getOrDefault(childClass, Map.of());
+            var childIds = children.entrySet().stream()
+                    .filter(entry -> isChildOf(entry.getValue(), clazz, ids))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            removed += deleteFromCache(childClass, childIds);
+        }
+
+        var records = cacheMap.getOrDefault(clazz, new HashMap<>());
+
+        for (var recordId : ids) {
+            var removedRecord = records.remove(recordId);
+
+            if (removedRecord != null) {
+                setObjectIdToNull(removedRecord);
+                markRemoved(removedRecord);
+                removed++;
+            }
+            removeSnapshot(clazz, recordId);
+        }
+        LOGGER.info("{} records removed from cache for {} {} ids.", removed, ids.size(), clazz.getSimpleName());
+        return removed;
+    }
+
+    private boolean isChildOf(Object child, Class<?> parentClass, Set<Serializable> parentIds) {
+        return getMetadata(child.getClass()).getManyToOneRelationships().stream()
+                .filter(relationship -> relationship.getTargetClass() == parentClass)
+                .map(relationship -> relationship.getAccessor().get(child))
+                .anyMatch(parent -> parent != null && parentIds.contains(getRecordId(parent)));
+    }
+
+    /**
+     * Update columns whose value differs from the snapshot taken when a record with the same id was last put in
+     * the cache, or empty when there is no snapshot. A {@code @ManyToOne} reference set to null is not a change,
+     * since the UPDATE keeps the stored foreign key in that case.
+     */
+    synchronized Optional<List<ColumnMetadata>> getChangedColumns(Object record) {
+        var recordId = getRecordId(record);
+        var snapshot = recordId == null ? null : snapshots.getOrDefault(record.getClass(), Map.of()).get(recordId);
+
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        var columns = getMetadata(record.getClass()).getUpdateColumns();
+        var current = snapshot(record);
+        var changed = new ArrayList<ColumnMetadata>();
+
+        for (int i = 0; i < columns.size(); i++) {
+            var keptForeignKey = columns.get(i).isManyToOne() && current[i] == null;
+
+            if (!keptForeignKey && !Objects.equals(snapshot[i], current[i])) {
+                changed.add(columns.get(i));
+            }
+        }
+        return Optional.of(changed);
+    }
+
+    private Object[] snapshot(Object record) {
+        var columns = getMetadata(record.getClass()).getUpdateColumns();
+        var values = new Object[columns.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            var column = columns.get(i);
+            var value = column.getAccessor().get(record);
+
+            values[i] = column.isManyToOne() && value != null ? getRecordId(value) : value;
+        }
+        return values;
+    }
+
+    private void removeSnapshot(Class<?> clazz, Serializable recordId) {
+        Optional.ofNullable(snapshots.get(clazz)).ifPresent(classSnapshots -> classSnapshots.remove(recordId));
+    }
+
+    synchronized EntityState getState(Object record) {
+        var state = states.get(record);
+
+        if (state != null) {
+            return state;
+        }
+        if (removedInstances.contains(new RemovedInstance(record, null))) {
+            return EntityState.REMOVED;
+        }
+        return getRecordId(record) == null ? EntityState.TRANSIENT : EntityState.DETACHED;
+    }
+
+    /**
+     * Marks an instance as deleted, whether it was cached or not.
+     */
+    synchronized void markRemoved(Object record) {
+        states.remove(record);
+        for (Reference<?> collected; (collected = collectedRemoved.poll()) != null; ) {
+            removedInstances.remove(collected);
+        }
+        removedInstances.add(new RemovedInstance(record, collectedRemoved));
+    }
+
+    synchronized int getRemovedCount() {
+        return removedInstances.size();
+    }
+
+    synchronized boolean isRecordInCache(Serializable recordId, Class<?> clazz) {
 
         return Optional.ofNullable(cacheMap.get(clazz))
                 .map(m -> m.containsKey(recordId))
@@ -77,40 +227,54 @@ class Cache {
 
     private void setObjectIdToNull(Object object) {
 
-        OrmManagerUtil.getIdField(object).ifPresent(field -> {
-            field.setAccessible(true);
-            try {
-                field.set(object, null);
-            } catch (IllegalAccessException e) {
-                LOGGER.error(e.getMessage(), "When setting id field to null");
-            }
-        });
+        var metadata = getMetadata(object.getClass());
+
+        if (metadata.hasIdColumn()) {
+            metadata.setId(object, null);
+        }
 
         LOGGER.info("{}'s id set to null", object.getClass().getSimpleName());
     }
 
     private Serializable getRecordId(Object t) {
 
-        Optional<Field> optionalId = Arrays.stream(t.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(Id.class))
-                .findFirst();
-
-        if (optionalId.isEmpty()) return null;
-
-        optionalId.get().setAccessible(true);
-        try {
-            return (Serializable) optionalId.get().get(t);
-        } catch (IllegalAccessException e) {
-            LOGGER.error(e.getMessage(), "When trying to get record ID.");
-            return null;
-        }
+        return getMetadata(t.getClass()).getId(t);
     }
 
-    void clearCache() {
+    synchronized void clearCache() {
         cacheMap.clear();
+        snapshots.clear();
+        states.clear();
+        removedInstances.clear();
     }
 
     Set<Map.Entry<Class<?>, Map<Serializable, Object>>> getEntrySet() {
         return cacheMap.entrySet();
     }
+
+    /**
+     * Weak reference that is equal to another one for the same instance, hashed by identity.
+     */
+    private static final class RemovedInstance extends WeakReference<Object> {
+        private final int hash;
+
+        RemovedInstance(Object instance, ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.hash = System.identityHashCode(instance);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            var instance = get();
+            return instance != null && other instanceof RemovedInstance removedInstance && removedInstance.get() == instance;
+        }
+    }
 }
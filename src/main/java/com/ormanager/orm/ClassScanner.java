@@ -3,14 +3,105 @@ package com.ormanager.orm;
 import com.ormanager.orm.annotation.Entity;
 import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
-import java.util.Set;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Finds classes marked with {@link Entity}. The index written at build time by the entity annotation processor
+ * ({@value #ENTITY_INDEX}) is read first. Only packages with no indexed entity are scanned on the classpath, and
+ * the result of that scan is cached per package list.
+ */
 @Slf4j(topic = "ClassScanner")
 public class ClassScanner {
+    public static final String ENTITY_INDEX = "META-INF/ormanager/entities";
+    /**
+     * Comma separated packages searched by {@link #getClassesMarkedAsEntity()}.
+     */
+    public static final String PACKAGES_PROPERTY = "ormanager.entity.packages";
+    public static final String DEFAULT_PACKAGES = "com.ormanager.client.entity";
+
+    private static final Map<List<String>, Set<Class<?>>> SCANNED = new ConcurrentHashMap<>();
+    private static volatile Duration lastScanDuration = Duration.ZERO;
+
     public static Set<Class<?>> getClassesMarkedAsEntity() {
-        Reflections reflections = new Reflections("com.ormanager.client.entity");
+        return getClassesMarkedAsEntity(System.getProperty(PACKAGES_PROPERTY, DEFAULT_PACKAGES).split(","));
+    }
+
+    public static Set<Class<?>> getClassesMarkedAsEntity(String... packages) {
+        var packageList = Arrays.stream(packages).map(String::trim).filter(name -> !name.isEmpty()).toList();
+        var start = System.nanoTime();
+
+        var entities = new LinkedHashSet<>(readIndex(packageList));
+        var notIndexed = packageList.stream()
+                .filter(packageName -> entities.stream().noneMatch(entity -> isInPackages(entity.getName(), List.of(packageName))))
+                .toList();
+
+        if (!notIndexed.isEmpty()) {
+            LOGGER.info("No entity index for {}, scanning classpath", notIndexed);
+            entities.addAll(SCANNED.computeIfAbsent(notIndexed, ClassScanner::scan));
+        }
+
+        lastScanDuration = Duration.ofNanos(System.nanoTime() - start);
+        LOGGER.info("Found {} entities in {} in {} ms", entities.size(), packageList, lastScanDuration.toMillis());
+        return entities;
+    }
+
+    public static Duration getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    private static Set<Class<?>> readIndex(List<String> packages) {
+        var classLoader = Thread.currentThread().getContextClassLoader();
+        var entities = new LinkedHashSet<Class<?>>();
+
+        try {
+            var indexes = classLoader.getResources(ENTITY_INDEX);
+
+            while (indexes.hasMoreElements()) {
+                for (var className : readLines(indexes.nextElement())) {
+                    if (isInPackages(className, packages)) {
+                        entities.add(Class.forName(className, false, classLoader));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + ENTITY_INDEX, e);
+        } catch (ClassNotFoundException e) {
+            LOGGER.warn("{} lists a missing class, falling back to classpath scan: {}", ENTITY_INDEX, e.getMessage());
+            return Set.of();
+        }
+        return entities;
+    }
+
+    private static List<String> readLines(URL index) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).toList();
+        }
+    }
+
+    private static boolean isInPackages(String className, List<String> packages) {
+        return packages.stream().anyMatch(packageName -> className.startsWith(packageName + "."));
+    }
+
+    private static Set<Class<?>> scan(List<String> packages) {
+        var filter = new FilterBuilder();
+        packages.forEach(filter::includePackage);
+
+        var reflections = new Reflections(new ConfigurationBuilder()
+                .forPackages(packages.toArray(String[]::new))
+                .filterInputsBy(filter)
+                .setParallel(true));
 
-        return reflections.getTypesAnnotatedWith(Entity.class);
+        return Collections.unmodifiableSet(reflections.getTypesAnnotatedWith(Entity.class));
     }
 }
@@ -0,0 +1,178 @@
+package com.ormanager.orm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Collects id lookups per entity class for a short window, or until a batch is full, and loads each batch with
+ * one call to a {@link BatchLoader}. Lookups of an id that is already pending or being loaded share that load.
+ * <p>
+ * Batches are loaded one at a time on a single daemon thread, so the loader never uses the connection from two
+ * threads at once.
+ */
+@Slf4j(topic = "CoalescingLoader")
+public class CoalescingLoader implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface BatchLoader {
+        /**
+         * Entities found for the given ids, keyed by id. Ids without a row are left out.
+         */
+        Map<Serializable, ?> loadAll(Class<?> entityClass, List<Serializable> ids) throws Exception;
+    }
+
+    private final BatchLoader batchLoader;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "ormanager-coalescing-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Batch still collecting ids, per entity class. Guarded by {@code this}.
+     */
+    private final Map<Class<?>, Map<Serializable, CompletableFuture<Optional<Object>>>> collecting = new HashMap<>();
+    /**
+     * Every pending or running lookup, per entity class. Guarded by {@code this}.
+     */
+    private final Map<Class<?>, Map<Serializable, CompletableFuture<Optional<Object>>>> inFlight = new HashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder sharedRequests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private boolean closed;
+
+    public CoalescingLoader(BatchLoader batchLoader, Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, was " + maxBatchSize);
+        }
+        this.batchLoader = batchLoader;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Looks the id up as the entity's id type, so lookups of {@code 1} and {@code 1L} share a load and match the
+     * ids the {@link BatchLoader} returns.
+     */
+    public <T> CompletableFuture<Optional<T>> load(Class<T> entityClass, Serializable requestedId) {
+        var id = getMetadata(entityClass).normalizeId(requestedId);
+        CompletableFuture<Optional<Object>> result;
+        Map<Serializable, CompletableFuture<Optional<Object>>> fullBatch = null;
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Coalescing loader is closed");
+            }
+            requests.increment();
+            var classInFlight = inFlight.computeIfAbsent(entityClass, k -> new HashMap<>());
+            result = classInFlight.get(id);
+
+            if (result != null) {
+                sharedRequests.increment();
+            } else {
+                result = new CompletableFuture<>();
+                classInFlight.put(id, result);
+
+                var batch = collecting.get(entityClass);
+                if (batch == null) {
+                    batch = new LinkedHashMap<>();
+                    collecting.put(entityClass, batch);
+                    var scheduledBatch = batch;
+                    executor.schedule(() -> dispatch(entityClass, scheduledBatch), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                batch.put(id, result);
+
+                if (batch.size() >= maxBatchSize) {
+                    collecting.remove(entityClass);
+                    fullBatch = batch;
+                }
+            }
+        }
+
+        if (fullBatch != null) {
+            var batch = fullBatch;
+            executor.execute(() -> run(entityClass, batch));
+        }
+        return result.thenApply(entity -> entity.map(entityClass::cast));
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Lookups that joined a load already pending or running for the same id.
+     */
+    public long getSharedRequestCount() {
+        return sharedRequests.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Stops the loader thread. Lookups still waiting for their window are failed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        executor.shutdownNow().forEach(task -> LOGGER.debug("Dropped pending load {}", task));
+        synchronized (this) {
+            var error = new IllegalStateException("Coalescing loader is closed");
+            inFlight.values().forEach(lookups -> lookups.values().forEach(lookup -> lookup.completeExceptionally(error)));
+            inFlight.clear();
+            collecting.clear();
+        }
+    }
+
+    private void dispatch(Class<?> entityClass, Map<Serializable, CompletableFuture<Optional<Object>>> batch) {
+        synchronized (this) {
+            if (!collecting.remove(entityClass, batch)) {
+                return;
+            }
+        }
+        run(entityClass, batch);
+    }
+
+    private void run(Class<?> entityClass, Map<Serializable, CompletableFuture<Optional<Object>>> batch) {
+        batches.increment();
+        var ids = List.copyOf(batch.keySet());
+
+        try {
+            Map<Serializable, ?> loaded = batchLoader.loadAll(entityClass, ids);
+            LOGGER.debug("Loaded {} of {} {} ids in one batch", loaded.size(), ids.size(), entityClass.getSimpleName());
+
+            finish(entityClass, ids);
+            batch.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(loaded.get(id))));
+        } catch (Exception e) {
+            finish(entityClass, ids);
+            batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private synchronized void finish(Class<?> entityClass, List<Serializable> ids) {
+        var classInFlight = inFlight.get(entityClass);
+
+        if (classInFlight != null) {
+            ids.forEach(classInFlight::remove);
+        }
+    }
+}
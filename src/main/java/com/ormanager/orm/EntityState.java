@@ -0,0 +1,24 @@
+package com.ormanager.orm;
+
+/**
+ * Lifecycle state of an entity instance as seen by one {@link OrmManager}.
+ */
+public enum EntityState {
+    /**
+     * Never saved: no id, or an id nobody has seen. Saved with an INSERT.
+     */
+    TRANSIENT,
+    /**
+     * The instance held by the cache, loaded or saved through this manager. Saved with an UPDATE.
+     */
+    MANAGED,
+    /**
+     * Carries an id but is not the cached instance, e.g. built by hand or loaded elsewhere. Only these are looked
+     * up in the database before saving.
+     */
+    DETACHED,
+    /**
+     * Deleted through this manager since its cache was last cleared. Saved again with an INSERT.
+     */
+    REMOVED
+}
@@ -2,6 +2,7 @@ package com.ormanager.orm;
 
 import java.io.Serializable;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -14,20 +15,40 @@ public interface IOrmManager {
 
     void persist(Object o) throws SQLException, IllegalAccessException;
 
+    <T> List<T> saveAll(Collection<T> objects);
+
+    void persistAll(Collection<?> objects) throws SQLException;
+
     <T> Optional<T> findById(Serializable id, Class<T> cls);
 
+    <T> List<T> findAllById(Collection<? extends Serializable> ids, Class<T> cls);
+
     <T> List<T> findAll(Class<T> cls);
 
     <T> IterableORM<T> findAllAsIterable(Class<T> cls)  throws SQLException;
 
     <T> Stream<T> findAllAsStream(Class<T> cls) throws SQLException;
 
+    <T> Stream<T> findAllAsParallelStream(Class<T> cls) throws SQLException;
+
+    <T> Page<T> findPage(Class<T> cls, Serializable afterId, int limit);
+
+    <T> Page<T> findPage(Class<T> cls, String sortColumn, Object afterSortValue, Serializable afterId, int limit);
+
+    <T> Page<T> nextPage(Page<T> page);
+
+    <T> Query<T> query(Class<T> cls);
+
     boolean merge(Object o);
 
     Object update(Object o);
 
     boolean delete(Object o);
 
+    int deleteAll(Collection<?> objects);
+
+    <T> int deleteByIds(Class<T> cls, Collection<? extends Serializable> ids);
+
     void dropEntity(Class<?> clazz);
 
     void createRelationships(Class<?>... entityClasses) throws SQLException, NoSuchFieldException;
@@ -0,0 +1,112 @@
+package com.ormanager.orm;
+
+import com.ormanager.orm.exception.OrmQueryException;
+import com.ormanager.orm.mapper.RowMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the rows of an entity with a numeric id whose ids lie in an inclusive range. {@link #trySplit()}
+ * hands out the lower half of the range, counting its rows first. The counts are only estimates, not
+ * {@code SIZED}, because rows may be inserted or deleted before a part is read. Each part opens its own query,
+ * ordered by id, when it is first traversed and closes it after the last row. A failed query fails the stream with
+ * an {@link OrmQueryException} rather than ending the part early.
+ */
+@Slf4j(topic = "IdRangeSpliterator")
+class IdRangeSpliterator<T> implements Spliterator<T> {
+    interface RangeQueries {
+        long count(long fromId, long toId) throws SQLException;
+
+        StreamingQuery open(long fromId, long toId) throws SQLException;
+    }
+
+    private final Class<T> cls;
+    private final RowMapper<T> rowMapper;
+    private final Cache ormCache;
+    private final RangeQueries queries;
+    private final long minSplitSize;
+    private long fromId;
+    private final long toId;
+    private long size;
+    private StreamingQuery query;
+
+    /**
+     * @param size         number of rows with an id in {@code [fromId, toId]} when they were counted
+     * @param minSplitSize smallest number of rows of a part produced by splitting
+     */
+    IdRangeSpliterator(Class<T> cls, RowMapper<T> rowMapper, Cache ormCache, RangeQueries queries,
+                       long fromId, long toId, long size, long minSplitSize) {
+        this.cls = cls;
+        this.rowMapper = rowMapper;
+        this.ormCache = ormCache;
+        this.queries = queries;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.size = size;
+        this.minSplitSize = minSplitSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            if (query == null) {
+                query = queries.open(fromId, toId);
+            }
+            if (query.isClosed()) {
+                return false;
+            }
+            var resultSet = query.getResultSet();
+
+            if (resultSet.next()) {
+                var id = rowMapper.readId(resultSet);
+                var entity = ormCache.getFromCache(id, cls).orElse(null);
+
+                if (entity == null) {
+                    entity = rowMapper.mapRow(resultSet);
+                    ormCache.putToCache(entity);
+                }
+                size = Math.max(0, size - 1);
+                action.accept(entity);
+                return true;
+            }
+            query.close();
+        } catch (SQLException e) {
+            throw new OrmQueryException("Could not read " + cls.getSimpleName() + " ids " + fromId + ".." + toId, e);
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (query != null || size < 2 * minSplitSize || fromId >= toId) {
+            return null;
+        }
+        var middleId = fromId + (toId - fromId) / 2;
+
+        try {
+            var lowerSize = queries.count(fromId, middleId);
+            var lower = new IdRangeSpliterator<>(cls, rowMapper, ormCache, queries, fromId, middleId, lowerSize, minSplitSize);
+
+            LOGGER.debug("{} ids {}..{} split at {}: {} and {} rows", cls.getSimpleName(), fromId, toId, middleId,
+                    lowerSize, size - lowerSize);
+            fromId = middleId + 1;
+            size = Math.max(0, size - lowerSize);
+            return lower;
+        } catch (SQLException e) {
+            throw new OrmQueryException("Could not count " + cls.getSimpleName() + " ids " + fromId + ".." + middleId, e);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
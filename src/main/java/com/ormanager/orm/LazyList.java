@@ -0,0 +1,99 @@
+package com.ormanager.orm;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * {@code @OneToMany} collection of an entity loaded in lazy mode. The children are selected the first time an
+ * element is read or the list is changed; until then {@link #size()} and {@link #isEmpty()} are answered with a
+ * COUNT query, and saves and deletes of the owning entity do not cascade to it.
+ */
+@Slf4j(topic = "LazyList")
+public class LazyList<E> extends AbstractList<E> {
+    @FunctionalInterface
+    interface Query<R> {
+        R run() throws SQLException;
+    }
+
+    private final Query<List<E>> loader;
+    private final Query<Integer> counter;
+    private List<E> elements;
+    private Integer count;
+
+    LazyList(Query<List<E>> loader, Query<Integer> counter) {
+        this.loader = loader;
+        this.counter = counter;
+    }
+
+    public boolean isLoaded() {
+        return elements != null;
+    }
+
+    @Override
+    public E get(int index) {
+        return load().get(index);
+    }
+
+    @Override
+    @SneakyThrows(SQLException.class)
+    public int size() {
+        if (elements != null) {
+            return elements.size();
+        }
+        if (count == null) {
+            count = counter.run();
+        }
+        return count;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return load().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        load().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        var removed = load().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return load().iterator();
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return load().listIterator(index);
+    }
+
+    /**
+     * Does not load the children, so that logging the owning entity does not run a query.
+     */
+    @Override
+    public String toString() {
+        return elements == null ? "[not loaded]" : elements.toString();
+    }
+
+    @SneakyThrows(SQLException.class)
+    private List<E> load() {
+        if (elements == null) {
+            elements = loader.run();
+            LOGGER.debug("{} children loaded.", elements.size());
+        }
+        return elements;
+    }
+}
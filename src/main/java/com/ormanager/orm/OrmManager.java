@@ -3,36 +3,82 @@ package com.ormanager.orm;
 import com.ormanager.SchemaOperationType;
 import com.ormanager.jdbc.ConnectionToDB;
 import com.ormanager.orm.annotation.Column;
-import com.ormanager.orm.annotation.Id;
 import com.ormanager.orm.annotation.ManyToOne;
-import com.ormanager.orm.annotation.Table;
+import com.ormanager.orm.dialect.SqlDialect;
 import com.ormanager.orm.exception.IdAlreadySetException;
-import com.ormanager.orm.mapper.ObjectMapper;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.mapper.CompiledRowMapper;
+import com.ormanager.orm.mapper.GeneratedMappers;
+import com.ormanager.orm.mapper.ReflectiveRowMapper;
+import com.ormanager.orm.mapper.RowMapper;
+import com.ormanager.orm.metadata.EntityMetadataRegistry;
+import com.ormanager.orm.metadata.RelationshipMetadata;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.sql.DataSource;
 import java.io.Serializable;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static com.ormanager.orm.OrmManagerUtil.*;
-import static com.ormanager.orm.mapper.ObjectMapper.mapperToObject;
+import static com.ormanager.orm.SqlTemplateCache.Operation.*;
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
 import static java.util.Objects.requireNonNull;
 
 @Slf4j(topic = "OrmManager")
-public class OrmManager implements IOrmManager {
+public class OrmManager implements IOrmManager, AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /**
+     * Placeholder limit of a MySQL prepared statement, which bounds the IN list of one bulk DELETE.
+     */
+    private static final int MAX_STATEMENT_PARAMETERS = 65_535;
+
     private final Cache ormCache;
     private final Connection connection;
+    /**
+     * Connections for streams and iterables, so that a result set read row by row does not hold {@link #connection}.
+     */
+    private final ConnectionSupplier streamConnections;
+    /**
+     * Pool created by {@link #withPropertiesFrom(String)}, closed with the manager. A data source passed in by the
+     * caller is not owned.
+     */
+    private final HikariDataSource ownedDataSource;
+    private final SqlTemplateCache sqlTemplates = new SqlTemplateCache();
+    private final PreparedStatementCache statementCache;
+    private boolean compiledMappersEnabled;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean upsertEnabled;
+    private boolean lazyLoadingEnabled;
+    private boolean parentBatchFetchEnabled;
+    private UnitOfWork unitOfWork;
+    private long skippedUpdateCount;
+    private long partialUpdateCount;
+    private volatile CoalescingLoader coalescingLoader;
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
 
     public static OrmManager withPropertiesFrom(String filename) throws SQLException {
         ConnectionToDB.setFileName(filename);
-        return new OrmManager(ConnectionToDB.getConnection());
+        var dataSource = ConnectionToDB.getDataSource();
+
+        try {
+            return new OrmManager(dataSource.getConnection(), dataSource::getConnection, dataSource);
+        } catch (SQLException e) {
+            dataSource.close();
+            throw e;
+        }
     }
 
     public static OrmManager getConnectionWithArguments(String url, String username, String password) throws SQLException {
@@ -40,17 +86,23 @@ public class OrmManager implements IOrmManager {
     }
 
     public static OrmManager withDataSource(DataSource dataSource) throws SQLException {
-        return new OrmManager(dataSource.getConnection());
+        return new OrmManager(dataSource.getConnection(), dataSource::getConnection, null);
     }
 
-    private OrmManager(Connection connection) {
+    private OrmManager(Connection connection, ConnectionSupplier streamConnections, HikariDataSource ownedDataSource) {
         this.connection = connection;
+        this.streamConnections = streamConnections;
+        this.ownedDataSource = ownedDataSource;
+        this.statementCache = new PreparedStatementCache(connection);
         ormCache = new Cache();
     }
 
     private OrmManager(String url, String username, String password) throws SQLException {
         this.connection = DriverManager.
                 getConnection(url, username, password);
+        this.streamConnections = () -> DriverManager.getConnection(url, username, password);
+        this.ownedDataSource = null;
+        this.statementCache = new PreparedStatementCache(connection);
         ormCache = new Cache();
     }
 
@@ -59,8 +111,155 @@ public class OrmManager implements IOrmManager {
         return ormCache;
     }
 
+    public SqlTemplateCache getSqlTemplateCache() {
+        return sqlTemplates;
+    }
+
+    public PreparedStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public boolean isCompiledMappersEnabled() {
+        return compiledMappersEnabled;
+    }
+
+    /**
+     * Lets findAll, findAllAsStream and findAllAsIterable map entities without a mapper generated at build time through
+     * a {@link CompiledRowMapper} instead of the name-based reflective mapping (default). Generated mappers are used
+     * whenever they exist, whatever this setting.
+     */
+    public void setCompiledMappersEnabled(boolean compiledMappersEnabled) {
+        this.compiledMappersEnabled = compiledMappersEnabled;
+    }
+
+    public boolean isLazyLoadingEnabled() {
+        return lazyLoadingEnabled;
+    }
+
+    /**
+     * In lazy mode the {@code @OneToMany} lists of loaded entities are {@link LazyList}s, which select the children
+     * on first access and count them for {@code size()}. {@link #update} then reloads only the entity and its
+     * parents.
+     */
+    public void setLazyLoadingEnabled(boolean lazyLoadingEnabled) {
+        this.lazyLoadingEnabled = lazyLoadingEnabled;
+    }
+
+    public boolean isParentBatchFetchEnabled() {
+        return parentBatchFetchEnabled;
+    }
+
+    /**
+     * When enabled, findById, findAllById, findAll and findAllAsStream set the {@code @ManyToOne} parents of the
+     * entities they load. The parents of a whole result, or of each page of {@link #getBatchSize()} rows of a stream,
+     * are resolved together: the ones not cached are loaded with IN queries of the relationship's
+     * {@link ManyToOne#fetchBatchSize()}.
+     */
+    public void setParentBatchFetchEnabled(boolean parentBatchFetchEnabled) {
+        this.parentBatchFetchEnabled = parentBatchFetchEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Number of rows sent in one {@code executeBatch} call by {@link #saveAll} and {@link #persistAll}, and number of
+     * ids in one IN list of {@link #deleteByIds}.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public boolean isUpsertEnabled() {
+        return upsertEnabled;
+    }
+
+    /**
+     * In upsert mode {@link #save}, {@link #saveAll} and cascaded saves write entities that already have an id with
+     * one multi-row upsert statement from the {@link SqlDialect} per batch, instead of checking for the row first.
+     */
+    public void setUpsertEnabled(boolean upsertEnabled) {
+        this.upsertEnabled = upsertEnabled;
+    }
+
+    public SqlDialect getDialect() {
+        return sqlTemplates.getDialect();
+    }
+
+    public void setDialect(SqlDialect dialect) {
+        sqlTemplates.setDialect(dialect);
+    }
+
+    /**
+     * Number of merges, including batched updates, that found the entity equal to its cache snapshot and sent no
+     * UPDATE.
+     */
+    public long getSkippedUpdateCount() {
+        return skippedUpdateCount;
+    }
+
+    /**
+     * Routes cache misses of {@link #findById} through a {@link CoalescingLoader}: misses of one class within
+     * {@code window}, or up to {@code maxBatchSize} of them, are loaded with one IN query, and concurrent misses of
+     * the same id share one load. Ids without a row are then found empty.
+     */
+    public void enableLoadCoalescing(Duration window, int maxBatchSize) {
+        disableLoadCoalescing();
+        coalescingLoader = new CoalescingLoader((entityClass, ids) -> loadAllFromDb(ids, entityClass), window, maxBatchSize);
+    }
+
+    public void disableLoadCoalescing() {
+        var loader = coalescingLoader;
+        coalescingLoader = null;
+
+        if (loader != null) {
+            loader.close();
+        }
+    }
+
+    public Optional<CoalescingLoader> getCoalescingLoader() {
+        return Optional.ofNullable(coalescingLoader);
+    }
+
+    public EntityState getEntityState(Object entity) {
+        return ormCache.getState(entity);
+    }
+
+    /**
+     * Number of merges that updated only the columns changed since the cache snapshot.
+     */
+    public long getPartialUpdateCount() {
+        return partialUpdateCount;
+    }
+
+    /**
+     * Starts a transaction on this manager's connection that lasts until the returned unit of work is committed or
+     * rolled back.
+     *
+     * @throws IllegalStateException when a unit of work is already open
+     */
+    public UnitOfWork beginUnitOfWork() throws SQLException {
+        if (unitOfWork != null) {
+            throw new IllegalStateException("A unit of work is already open on this OrmManager");
+        }
+        unitOfWork = new UnitOfWork(this, connection);
+        return unitOfWork;
+    }
+
+    void endUnitOfWork(UnitOfWork finished) {
+        if (unitOfWork == finished) {
+            unitOfWork = null;
+        }
+    }
+
     @Override
     public void register(Class<?>... entityClasses) throws SQLException, NoSuchFieldException {
+        EntityMetadataRegistry.register(entityClasses);
+
         for (var clazz : entityClasses) {
             register(clazz);
         }
@@ -72,11 +271,12 @@ public class OrmManager implements IOrmManager {
             return;
         }
 
-        var tableName = OrmManagerUtil.getTableName(clazz);
+        var metadata = getMetadata(clazz);
+        var tableName = metadata.getTableName();
         var idFieldName = OrmManagerUtil.getIdFieldName(clazz);
-        var idFieldType = OrmManagerUtil.getIdField(clazz);
+        var idFieldType = metadata.getIdField();
         var idSqlType = OrmManagerUtil.getSqlIdTypeForFieldForGivenOperation(SchemaOperationType.REGISTER_ENTITY, idFieldType);
-        var basicFields = OrmManagerUtil.getBasicFieldsFromClass(clazz);
+        var basicFields = metadata.getBasicFields();
         var fieldsAndTypes = new StringBuilder();
 
         for (var basicField : basicFields) {
@@ -262,71 +462,266 @@ public class OrmManager implements IOrmManager {
     }
 
     @Override
-    public void persist(Object objectToPersist) throws SQLException, IllegalAccessException {
-        String sqlStatement = getInsertStatement(objectToPersist);
-        Field field = getIdField(objectToPersist).get();
-        field.setAccessible(true);
+    public synchronized void persist(Object objectToPersist) throws SQLException, IllegalAccessException {
+        String sqlStatement = sqlTemplates.get(objectToPersist.getClass(), INSERT);
+        var metadata = getMetadata(objectToPersist.getClass());
 
-        if (field.get(objectToPersist) != null
-                && getIdField(objectToPersist).orElseThrow().getType() != String.class) {
+        if (metadata.getId(objectToPersist) != null
+                && metadata.getIdField().getType() != String.class) {
             throw new IdAlreadySetException("Id was set already");
         }
 
         generateUuidForProperObject(objectToPersist);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement)) {
-            mapStatement(objectToPersist, preparedStatement);
-            getChildrenAndSaveThem(objectToPersist, objectToPersist.getClass());
-            ormCache.putToCache(objectToPersist);
-        }
+        PreparedStatement preparedStatement = statementCache.prepare(sqlStatement);
+        mapStatement(objectToPersist, preparedStatement);
+        getChildrenAndSaveThem(objectToPersist, objectToPersist.getClass());
+        ormCache.putToCache(objectToPersist);
     }
 
     @Override
     @SneakyThrows
-    public Object save(Object objectToSave) {
+    public synchronized Object save(Object objectToSave) {
 
         Class<?> objectClass = objectToSave.getClass();
 
-        if (!merge(objectToSave)) {
-            String sqlStatement = getInsertStatement(objectToSave);
+        if (isUpsertActive() && OrmManagerUtil.getId(objectToSave) != null) {
+            upsertInBatches(objectClass, List.of(objectToSave));
+        } else if (!merge(objectToSave)) {
+            String sqlStatement = sqlTemplates.get(objectClass, INSERT);
 
             generateUuidForProperObject(objectToSave);
 
-            try (PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement, Statement.RETURN_GENERATED_KEYS)) {
-                mapStatement(objectToSave, preparedStatement);
-                ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
+            PreparedStatement preparedStatement = statementCache.prepare(sqlStatement, true);
+            mapStatement(objectToSave, preparedStatement);
+
+            var metadata = getMetadata(objectClass);
 
-                if (OrmManagerUtil.getIdField(objectClass).getType() != UUID.class) {
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (metadata.getIdField().getType() != UUID.class) {
                     while (generatedKeys.next()) {
-                        for (Field field : getAllDeclaredFieldsFromObject(objectToSave)) {
-                            field.setAccessible(true);
-                            if (field.isAnnotationPresent(Id.class)) {
-                                var id = generatedKeys.getLong(1);
-                                field.set(objectToSave, id);
-                            }
-                        }
+                        metadata.setId(objectToSave, generatedKeys.getLong(1));
                     }
                 }
-                getChildrenAndSaveThem(objectToSave, objectClass);
             }
+            getChildrenAndSaveThem(objectToSave, objectClass);
         }
         return objectToSave;
     }
 
+    /**
+     * Saves every object like {@link #save(Object)}, in JDBC batches grouped by class. Objects with an id are
+     * updated in one batch and the ones no row matched are inserted with the objects without an id, which receive
+     * their generated ids from the batch.
+     */
     @Override
-    public boolean merge(Object entity) {
+    @SneakyThrows(SQLException.class)
+    public <T> List<T> saveAll(Collection<T> objectsToSave) {
+        saveInBatches(objectsToSave);
+        return new ArrayList<>(objectsToSave);
+    }
+
+    /**
+     * Inserts every object like {@link #persist(Object)}, in JDBC batches grouped by class. Nothing is inserted when
+     * one of the objects already has a generated id.
+     */
+    @Override
+    public void persistAll(Collection<?> objectsToPersist) throws SQLException {
+        for (var objectToPersist : objectsToPersist) {
+            var metadata = getMetadata(objectToPersist.getClass());
+
+            if (metadata.getId(objectToPersist) != null
+                    && metadata.getIdField().getType() != String.class) {
+                throw new IdAlreadySetException("Id was set already");
+            }
+        }
+
+        insertInBatches(objectsToPersist);
+    }
+
+    void saveInBatches(Collection<?> objectsToSave) throws SQLException {
+        var objectsByClass = objectsToSave.stream()
+                .collect(Collectors.groupingBy(Object::getClass, LinkedHashMap::new, Collectors.toList()));
+
+        for (var entry : objectsByClass.entrySet()) {
+            var newObjects = new ArrayList<Object>();
+            var existingObjects = new ArrayList<Object>();
+
+            for (var objectToSave : entry.getValue()) {
+                (OrmManagerUtil.getId(objectToSave) == null ? newObjects : existingObjects).add(objectToSave);
+            }
+            if (isUpsertActive()) {
+                upsertInBatches(entry.getKey(), existingObjects);
+            } else {
+                newObjects.addAll(updateInBatches(entry.getKey(), existingObjects));
+            }
+            insertInBatches(entry.getKey(), newObjects);
+        }
+    }
+
+    /**
+     * Runs the UPDATE of every object that differs from its cache snapshot in JDBC batches and returns the objects
+     * whose id matched no row.
+     */
+    private synchronized List<Object> updateInBatches(Class<?> objectClass, List<?> objectsToSave) throws SQLException {
+        var updatedObjects = new ArrayList<Object>();
+        var missingObjects = new ArrayList<Object>();
+        var objectsToUpdate = new ArrayList<Object>();
+
+        for (var objectToSave : objectsToSave) {
+            var unchanged = ormCache.getChangedColumns(objectToSave).map(List::isEmpty).orElse(false);
+
+            (unchanged ? updatedObjects : objectsToUpdate).add(objectToSave);
+        }
+        skippedUpdateCount += updatedObjects.size();
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(objectClass, UPDATE_BY_ID));
+
+        for (int from = 0; from < objectsToUpdate.size(); from += batchSize) {
+            var batch = objectsToUpdate.subList(from, Math.min(from + batchSize, objectsToUpdate.size()));
+            int[] updateCounts;
+
+            try {
+                for (var objectToUpdate : batch) {
+                    bindUpdateStatement(objectToUpdate, preparedStatement);
+                    preparedStatement.addBatch();
+                }
+                updateCounts = preparedStatement.executeBatch();
+            } finally {
+                preparedStatement.clearBatch();
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                (updateCounts[i] == 0 ? missingObjects : updatedObjects).add(batch.get(i));
+            }
+        }
+        if (!updatedObjects.isEmpty()) {
+            LOGGER.info("{} {} rows updated in batches of {}", updatedObjects.size(), objectClass.getSimpleName(), batchSize);
+        }
+
+        for (var updatedObject : updatedObjects) {
+            getChildrenAndSaveThem(updatedObject, objectClass);
+        }
+        return missingObjects;
+    }
+
+    private boolean isUpsertActive() {
+        return upsertEnabled && getDialect().supportsUpsert();
+    }
+
+    /**
+     * Writes objects that already have an id with the dialect's multi-row upsert, as many rows per statement as the
+     * batch size and the placeholder limit allow. The last statement is padded to a power of two rows by repeating
+     * a row, which upserts the same values twice.
+     */
+    private synchronized void upsertInBatches(Class<?> objectClass, List<?> objectsToUpsert) throws SQLException {
+        var metadata = getMetadata(objectClass);
+        var rowsPerStatement = Math.min(batchSize, MAX_STATEMENT_PARAMETERS / metadata.getUpsertColumns().size());
+
+        for (int from = 0; from < objectsToUpsert.size(); from += rowsPerStatement) {
+            var chunk = objectsToUpsert.subList(from, Math.min(from + rowsPerStatement, objectsToUpsert.size()));
+            var rowCount = paddedSize(chunk.size(), rowsPerStatement);
+            PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(objectClass, UPSERT, rowCount));
+            var parameterIndex = 1;
+
+            for (int i = 0; i < rowCount; i++) {
+                parameterIndex = bindUpsertRow(chunk.get(Math.min(i, chunk.size() - 1)), preparedStatement, parameterIndex);
+            }
+            preparedStatement.executeUpdate();
+        }
+        if (!objectsToUpsert.isEmpty()) {
+            LOGGER.info("{} {} rows upserted in statements of up to {} rows", objectsToUpsert.size(), objectClass.getSimpleName(), rowsPerStatement);
+        }
+
+        for (var upsertedObject : objectsToUpsert) {
+            getChildrenAndSaveThem(upsertedObject, objectClass);
+        }
+    }
+
+    private void insertInBatches(Collection<?> objectsToInsert) throws SQLException {
+        var objectsByClass = objectsToInsert.stream()
+                .collect(Collectors.groupingBy(Object::getClass, LinkedHashMap::new, Collectors.toList()));
+
+        for (var entry : objectsByClass.entrySet()) {
+            insertInBatches(entry.getKey(), entry.getValue());
+        }
+    }
+
+    synchronized void insertInBatches(Class<?> objectClass, List<?> objectsToInsert) throws SQLException {
+        var metadata = getMetadata(objectClass);
+        var readGeneratedKeys = metadata.isNumericId();
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(objectClass, INSERT), readGeneratedKeys);
+
+        for (int from = 0; from < objectsToInsert.size(); from += batchSize) {
+            var batch = objectsToInsert.subList(from, Math.min(from + batchSize, objectsToInsert.size()));
+
+            try {
+                for (var objectToInsert : batch) {
+                    generateUuidForProperObject(objectToInsert);
+                    bindInsertStatement(objectToInsert, preparedStatement);
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+            } finally {
+                preparedStatement.clearBatch();
+            }
+
+            if (readGeneratedKeys) {
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    for (var objectToInsert : batch) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for " + objectClass.getSimpleName());
+                        }
+                        metadata.setId(objectToInsert, generatedKeys.getLong(1));
+                    }
+                }
+            }
+        }
+        LOGGER.info("{} {} rows inserted in batches of {}", objectsToInsert.size(), objectClass.getSimpleName(), batchSize);
+
+        for (var objectToInsert : objectsToInsert) {
+            getChildrenAndSaveThem(objectToInsert, objectClass);
+        }
+    }
+
+    /**
+     * Whether the row of an entity exists without asking the database for managed, transient and removed instances.
+     * A managed instance whose row was deleted behind the manager's back is caught by its UPDATE matching no row.
+     */
+    private boolean isKnownToExist(Object entity) {
+        return switch (ormCache.getState(entity)) {
+            case MANAGED -> true;
+            case TRANSIENT, REMOVED -> false;
+            case DETACHED -> ormCache.isRecordInCache(OrmManagerUtil.getId(entity), entity.getClass()) || isRecordInDataBase(entity);
+        };
+    }
+
+    @Override
+    public synchronized boolean merge(Object entity) {
         boolean isMerged = false;
         String recordId = getRecordId(entity);
         Class<?> recordClass = entity.getClass();
-
-        if (ormCache.isRecordInCache(recordId, recordClass) | isRecordInDataBase(entity)) {
-            String queryCheck = String.format("UPDATE %s SET %s WHERE id = ?",
-                    getTableClassName(entity),
-                    getColumnFieldsWithValuesToString(entity)
-            );
-
-            try (PreparedStatement preparedStatement = connection.prepareStatement(queryCheck)) {
-                preparedStatement.setString(1, recordId);
+        var changedColumns = ormCache.getChangedColumns(entity);
+
+        if (changedColumns.isPresent() && changedColumns.get().isEmpty()) {
+            skippedUpdateCount++;
+            LOGGER.info("{} (id = {}) is unchanged, UPDATE skipped.", recordClass.getSimpleName(), recordId);
+            isMerged = true;
+        } else if (isKnownToExist(entity)) {
+            var metadata = getMetadata(recordClass);
+            var columnMask = changedColumns.map(metadata::getUpdateColumnMask).orElse(-1);
+            var partialUpdate = columnMask > 0 && changedColumns.get().size() < metadata.getUpdateColumns().size();
+
+            try {
+                PreparedStatement preparedStatement;
+
+                if (partialUpdate) {
+                    preparedStatement = statementCache.prepare(sqlTemplates.get(recordClass, UPDATE_COLUMNS_BY_ID, columnMask));
+                    bindUpdateStatement(entity, preparedStatement, metadata.getUpdateColumns(columnMask));
+                    partialUpdateCount++;
+                } else {
+                    preparedStatement = statementCache.prepare(sqlTemplates.get(recordClass, UPDATE_BY_ID));
+                    bindUpdateStatement(entity, preparedStatement);
+                }
                 LOGGER.info("SQL CHECK STATEMENT: {}", preparedStatement);
 
                 isMerged = preparedStatement.executeUpdate() > 0;
@@ -342,37 +737,34 @@ public class OrmManager implements IOrmManager {
         return isMerged;
     }
 
+    /**
+     * Cascades the save to the children of a parent: each child gets the parent set, then all children are saved in
+     * batches with the foreign key already bound.
+     */
+    @SneakyThrows(SQLException.class)
     private void getChildrenAndSaveThem(Object objectToSave, Class<?> objectClass) {
         if (isParent(objectClass)) {
-            requireNonNull(getChildren(objectToSave))
-                    .forEach(child -> {
-                        try {
-                            Field parentField = OrmManagerUtil.getParent(child);
-                            LOGGER.info("PARENT FIELD: {}", parentField);
-                            parentField.setAccessible(true);
-                            parentField.set(child, objectToSave);
-                            save(child);
-                        } catch (IllegalAccessException e) {
-                            LOGGER.error(e.getMessage(), "When trying to save child while merging or saving parent.");
-                        }
-                    });
+            var children = requireNonNull(getChildren(objectToSave));
+
+            children.forEach(child -> setParent(child, objectToSave));
+            saveInBatches(children);
         }
 
         ormCache.putToCache(objectToSave);
     }
 
     @Override
-    public boolean delete(Object recordToDelete) {
+    public synchronized boolean delete(Object recordToDelete) {
 
         boolean isDeleted = false;
         Class<?> recordToDeleteClass = recordToDelete.getClass();
         String recordId = "";
 
         if (isRecordInDataBase(recordToDelete)) {
-            String tableName = getTableClassName(recordToDelete);
-            String queryCheck = String.format("DELETE FROM %s WHERE id = ?", tableName);
+            String queryCheck = sqlTemplates.get(recordToDeleteClass, DELETE_BY_ID);
 
-            try (PreparedStatement preparedStatement = connection.prepareStatement(queryCheck)) {
+            try {
+                PreparedStatement preparedStatement = statementCache.prepare(queryCheck);
                 recordId = getRecordId(recordToDelete);
                 preparedStatement.setString(1, recordId);
                 LOGGER.info("SQL CHECK STATEMENT: {}", preparedStatement);
@@ -392,6 +784,74 @@ public class OrmManager implements IOrmManager {
         return isDeleted;
     }
 
+    /**
+     * Deletes the rows of every object, grouped by class, through {@link #deleteByIds}. The objects and their
+     * {@code @OneToMany} children get their ids set to null.
+     *
+     * @return number of deleted rows, not counting rows removed by ON DELETE CASCADE
+     */
+    @Override
+    public int deleteAll(Collection<?> recordsToDelete) {
+        var recordsByClass = recordsToDelete.stream()
+                .collect(Collectors.groupingBy(Object::getClass, LinkedHashMap::new, Collectors.toList()));
+        int deleted = 0;
+
+        for (var entry : recordsByClass.entrySet()) {
+            var ids = entry.getValue().stream()
+                    .map(OrmManagerUtil::getId)
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            deleted += deleteByIds(entry.getKey(), ids);
+            entry.getValue().forEach(this::clearDeletedIds);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes rows by id with {@code DELETE ... WHERE id IN (...)} statements of at most {@link #getBatchSize()} ids.
+     * The last IN list is padded to a power of two by repeating an id, so only a few statement shapes are prepared.
+     * Deleted entities and their cached children are evicted from the cache.
+     *
+     * @return number of deleted rows, not counting rows removed by ON DELETE CASCADE
+     */
+    @Override
+    @SneakyThrows(SQLException.class)
+    public synchronized <T> int deleteByIds(Class<T> cls, Collection<? extends Serializable> ids) {
+        var distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        var chunkSize = Math.min(batchSize, MAX_STATEMENT_PARAMETERS);
+        int deleted = 0;
+
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            var chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            var parameterCount = paddedSize(chunk.size(), chunkSize);
+            PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(cls, DELETE_BY_IDS, parameterCount));
+
+            for (int i = 0; i < parameterCount; i++) {
+                preparedStatement.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).toString());
+            }
+            deleted += preparedStatement.executeUpdate();
+        }
+
+        if (!distinctIds.isEmpty()) {
+            ormCache.deleteFromCache(cls, distinctIds);
+        }
+        LOGGER.info("{} {} rows deleted for {} ids.", deleted, cls.getSimpleName(), distinctIds.size());
+        return deleted;
+    }
+
+    private void clearDeletedIds(Object deletedRecord) {
+        var metadata = getMetadata(deletedRecord.getClass());
+
+        if (metadata.isParent()) {
+            Optional.ofNullable(getChildren(deletedRecord)).ifPresent(children -> children.forEach(this::clearDeletedIds));
+        }
+        if (metadata.hasIdColumn()) {
+            metadata.setId(deletedRecord, null);
+        }
+        ormCache.markRemoved(deletedRecord);
+    }
+
     private void deleteChildren(Object parent) {
         if (isParent(parent.getClass())) {
             requireNonNull(getChildren(parent))
@@ -402,50 +862,29 @@ public class OrmManager implements IOrmManager {
         }
     }
 
+    /**
+     * Children of {@code obj} of the given class, all read by one SELECT on the foreign key.
+     */
     public List<Object> getChildrenFromDataBase(Field childrenField, Object obj, Class<?> clazz) {
-        Object ch = null;
         List<Object> children = new ArrayList<>();
 
-        String sqlStatement = "SELECT * FROM "
-                .concat(childrenField.getName())
-                .concat(" WHERE ")
-                .concat(obj.getClass().getSimpleName().toLowerCase())
-                .concat("_id")
-                .concat(" = ")
-                .concat(OrmManagerUtil.getId(obj).toString())
-                .concat(";");
-
-        try (PreparedStatement preparedStatement1 = connection.prepareStatement(sqlStatement)) {
-            ResultSet resultSet1 = preparedStatement1.executeQuery();
-            ch = clazz.getDeclaredConstructor().newInstance();
-            if (resultSet1.next()) {
-                ch = mapperToObject(resultSet1, ch).orElseThrow();
-                children.add(ch);
-
-            }
-        } catch (Exception e) {
+        try {
+            children.addAll(selectChildren(clazz, obj));
+        } catch (SQLException e) {
             LOGGER.error(e.getMessage());
         }
 
         return children;
     }
 
-    public Serializable getParentIdFromDatabase(String parentName, String objectName, String objectId) throws SQLException {
-        String sqlStatement = "SELECT "
-                .concat(parentName)
-                .concat("_id")
-                .concat(" FROM ")
-                .concat(objectName)
-                .concat(" WHERE ")
-                .concat("id = ")
-                .concat(objectId)
-                .concat(";");
-
-        try (PreparedStatement preparedStatement1 = connection.prepareStatement(sqlStatement)) {
-            ResultSet resultSet1 = preparedStatement1.executeQuery();
+    public synchronized Serializable getParentIdFromDatabase(String parentName, String objectName, String objectId) throws SQLException {
+        String sqlStatement = "SELECT " + parentName + "_id FROM " + objectName + " WHERE id = ?";
+        PreparedStatement preparedStatement = statementCache.prepare(sqlStatement);
+        preparedStatement.setString(1, objectId);
 
-            if (resultSet1.next()) {
-                return resultSet1.getLong(1);
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (resultSet.next() && resultSet.getObject(1) != null) {
+                return resultSet.getLong(1);
             }
         }
         return null;
@@ -454,139 +893,174 @@ public class OrmManager implements IOrmManager {
     public Object getParentFromDatabase(String parentName, Object obj, Class<?> clazz) throws SQLException {
         Object parent = null;
 
-        Table table = obj.getClass().getAnnotation(Table.class);
-        String tableName = table.name();
-
-        String sqlStatement = "SELECT * FROM "
-                .concat(parentName)
-                .concat(" WHERE ")
-                .concat("id = ")
-                .concat(String.valueOf(getParentIdFromDatabase(clazz.getSimpleName().toLowerCase(), tableName, OrmManagerUtil.getId(obj).toString())))
-                .concat(";");
+        String tableName = getMetadata(obj.getClass()).getTableName();
+        var parentId = getParentIdFromDatabase(clazz.getSimpleName().toLowerCase(), tableName, OrmManagerUtil.getId(obj).toString());
 
-        try (PreparedStatement preparedStatement1 = connection.prepareStatement(sqlStatement)) {
-            ResultSet resultSet1 = preparedStatement1.executeQuery();
-            parent = clazz.getDeclaredConstructor().newInstance();
-            if (resultSet1.next()) {
-                parent = mapperToObject(resultSet1, parent).orElseThrow();
-            }
-        } catch (Exception e) {
+        try {
+            Optional<?> found = parentId == null ? Optional.empty() : selectById(parentId, clazz);
+            parent = found.isPresent() ? found.get() : clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
             LOGGER.error(e.getMessage());
         }
 
         return parent;
     }
 
+    /**
+     * Reloads the entity with one query per relationship level: its own row, one SELECT per {@code @ManyToOne}
+     * parent found by the foreign key of that row, and one SELECT of all children per {@code @OneToMany}. Children
+     * get the reloaded entity as their parent, and the cache is updated once with the entity and its children.
+     */
     @Override
     public Object update(Object obj) {
-        if (OrmManagerUtil.getId(obj) != null && isRecordInDataBase(obj)) {
-            LOGGER.info("This {} has been updated from Data Base.",
-                    obj.getClass().getSimpleName());
+        var id = OrmManagerUtil.getId(obj);
+        Optional<?> refreshed = Optional.empty();
+
+        if (id != null) {
+            try {
+                refreshed = refresh(id, obj.getClass());
+            } catch (SQLException e) {
+                LOGGER.info(String.valueOf(e));
+            }
+        }
+
+        if (refreshed.isPresent()) {
+            LOGGER.info("This {} has been updated from Data Base.", obj.getClass().getSimpleName());
+            return refreshed.get();
+        }
+        LOGGER.info("There is no such object with id in database or id of element is null.");
+        LOGGER.info("The object {} that was passed to the method was returned.",
+                obj.getClass().getSimpleName());
+        return obj;
+    }
 
-            Object t = null;
-            Object parent = null;
-            List<Object> children = null;
-            Class<?> classType;
+    private synchronized <T> Optional<T> refresh(Serializable id, Class<T> cls) throws SQLException {
+        var metadata = getMetadata(cls);
+        var parentIds = new LinkedHashMap<RelationshipMetadata, Serializable>();
+        T refreshed;
 
-            String sqlStatement = "SELECT * FROM "
-                    .concat(OrmManagerUtil.getTableName(obj.getClass()))
-                    .concat(" WHERE id='")
-                    .concat(OrmManagerUtil.getId(obj).toString())
-                    .concat("';");
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(cls, SELECT_BY_ID));
+        preparedStatement.setString(1, id.toString());
 
-            if (isParent(obj.getClass())) {
-                Field field = getChild(obj);
-                classType = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            refreshed = getRowMapper(cls).mapRow(resultSet);
 
-                children = getChildrenFromDataBase(field, obj, classType);
-                children.forEach(this::update);
+            for (var relationship : metadata.getManyToOneRelationships()) {
+                var foreignKeyIndex = metadata.getSelectIndex(relationship.getColumnName());
+                parentIds.put(relationship, readForeignKey(resultSet, foreignKeyIndex, relationship.getTargetClass()));
             }
+        }
 
-            if (isChild(obj.getClass())) {
-                Field field = getParent(obj);
-                Table table = field.getType().getAnnotation(Table.class);
-                String tableName = table.name();
+        for (var entry : parentIds.entrySet()) {
+            if (entry.getValue() != null) {
+                var parent = selectById(entry.getValue(), entry.getKey().getTargetClass());
 
-                try {
-                    parent = getParentFromDatabase(tableName, obj, field.getType());
-                } catch (Exception e) {
-                    LOGGER.info(String.valueOf(e));
+                if (parent.isPresent()) {
+                    entry.getKey().getAccessor().set(refreshed, parent.get());
                 }
             }
+        }
 
-            try (PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement)) {
-                ResultSet resultSet = preparedStatement.executeQuery();
-                t = obj.getClass().getDeclaredConstructor().newInstance();
+        var children = new ArrayList<Object>();
 
-                if (resultSet.next()) {
+        for (var relationship : lazyLoadingEnabled ? List.<RelationshipMetadata>of() : metadata.getOneToManyRelationships()) {
+            var loadedChildren = selectChildren(relationship.getTargetClass(), refreshed);
 
-                    t = mapperToObject(resultSet, t).orElseThrow();
-                    ormCache.deleteFromCache(ormCache.getFromCache(OrmManagerUtil.getId(obj), obj.getClass()).get());
+            relationship.getAccessor().set(refreshed, loadedChildren);
+            children.addAll(loadedChildren);
+        }
 
-                    if (children != null) {
+        ormCache.getFromCache(id, cls).ifPresent(ormCache::deleteFromCache);
+        ormCache.putToCache(refreshed);
+        children.forEach(ormCache::putToCache);
 
-                        Field child1 = getChild(t);
-                        child1.setAccessible(true);
-                        child1.set(t, children);
-                        ormCache.putToCache(t);
+        return Optional.of(refreshed);
+    }
 
-                        for (Object child2 : children) {
-                            try {
-                                Field temp = getParent(child2);
-                                temp.setAccessible(true);
-                                temp.set(child2, t);
-                                ormCache.putToCache(child2);
+    private synchronized <T> Optional<T> selectById(Serializable id, Class<T> cls) throws SQLException {
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(cls, SELECT_BY_ID));
+        preparedStatement.setString(1, id.toString());
 
-                            } catch (IllegalAccessException e) {
-                                LOGGER.warn(e.getMessage());
-                            }
-                        }
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? Optional.of(getRowMapper(cls).mapRow(resultSet)) : Optional.empty();
+        }
+    }
 
-                        return t;
-                    }
+    /**
+     * Every child of the parent in one SELECT, each with its {@code @ManyToOne} to the parent's class set to it.
+     */
+    private synchronized <T> List<T> selectChildren(Class<T> childClass, Object parent) throws SQLException {
+        var children = new ArrayList<T>();
+        var rowMapper = getRowMapper(childClass);
+        var parentRelationships = getMetadata(childClass).getManyToOneRelationships().stream()
+                .filter(relationship -> relationship.getTargetClass() == parent.getClass())
+                .toList();
 
-                    if (parent != null) {
-                        Field temp = getParent(obj);
-                        temp.setAccessible(true);
-                        temp.set(t, parent);
-                        ormCache.putToCache(t);
-                        return t;
-                    }
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(childClass, SELECT_BY_PARENT, parent.getClass()));
+        preparedStatement.setString(1, OrmManagerUtil.getId(parent).toString());
 
-                    ormCache.putToCache(t);
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                T child = rowMapper.mapRow(resultSet);
+                parentRelationships.forEach(relationship -> relationship.getAccessor().set(child, parent));
+                children.add(child);
+            }
+        }
+        return children;
+    }
 
-                }
-            } catch (Exception e) {
-                LOGGER.info(String.valueOf(e));
+    /**
+     * Children for a {@link LazyList}; instances already in the cache are reused.
+     */
+    private <T> List<T> loadChildren(Class<T> childClass, Object parent) throws SQLException {
+        var children = new ArrayList<T>();
+
+        for (var child : selectChildren(childClass, parent)) {
+            var cached = ormCache.getFromCache(OrmManagerUtil.getId(child), childClass);
+
+            if (cached.isPresent()) {
+                children.add(cached.get());
+            } else {
+                ormCache.putToCache(child);
+                children.add(child);
             }
+        }
+        LOGGER.info("{} {} children of {} loaded lazily.", children.size(), childClass.getSimpleName(), parent.getClass().getSimpleName());
+        return children;
+    }
 
-            return t;
+    private synchronized int countChildren(Class<?> childClass, Object parent) throws SQLException {
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(childClass, COUNT_BY_PARENT, parent.getClass()));
+        preparedStatement.setString(1, OrmManagerUtil.getId(parent).toString());
+
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
         }
-        LOGGER.info("There is no such object with id in database or id of element is null.");
-        LOGGER.info("The object {} that was passed to the method was returned.",
-                obj.getClass().getSimpleName());
-        return obj;
     }
 
     @Override
-    public boolean isRecordInDataBase(Object searchedRecord) {
+    public synchronized boolean isRecordInDataBase(Object searchedRecord) {
 
         boolean isInDB = ormCache.isRecordInCache(getId(searchedRecord), searchedRecord.getClass());
         if (isInDB) return true;
 
-        String tableName = searchedRecord.getClass().getAnnotation(Table.class).name();
-        String queryCheck = String.format("SELECT count(*) FROM %s WHERE id = ?", tableName);
+        String queryCheck = sqlTemplates.get(searchedRecord.getClass(), COUNT_BY_ID);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(queryCheck)) {
+        try {
+            PreparedStatement preparedStatement = statementCache.prepare(queryCheck);
             String recordId = getRecordId(searchedRecord);
 
             preparedStatement.setString(1, recordId);
             LOGGER.info("SQL CHECK STATEMENT: {}", preparedStatement);
 
-            final ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                int count = resultSet.getInt(1);
-                isInDB = count == 1;
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    int count = resultSet.getInt(1);
+                    isInDB = count == 1;
+                }
             }
         } catch (SQLException e) {
             LOGGER.error("isRecordInDataBase error: " + e.getMessage());
@@ -603,11 +1077,77 @@ public class OrmManager implements IOrmManager {
     public <T> Optional<T> findById(Serializable id, Class<T> cls) {
         if (id == null || cls == null) throw new NoSuchElementException();
 
-        return ormCache.getFromCache(id, cls)
-                .or(() -> (loadFromDb(id, cls)));
+        var loader = coalescingLoader;
+        var entityId = getMetadata(cls).normalizeId(id);
+
+        return ormCache.getFromCache(entityId, cls)
+                .or(() -> loader == null ? loadFromDb(entityId, cls) : loader.load(cls, entityId).join());
+    }
+
+    /**
+     * Entities for the given ids in input order, ids without a row left out. Cached entities are taken from the
+     * cache; the others are loaded with {@code WHERE id IN (...)} queries of at most {@link #getBatchSize()} ids,
+     * padded to a power of two like the bulk DELETE.
+     */
+    @Override
+    @SneakyThrows(SQLException.class)
+    public <T> List<T> findAllById(Collection<? extends Serializable> ids, Class<T> cls) {
+        var metadata = getMetadata(cls);
+        var requestedIds = ids.stream().map(metadata::normalizeId).toList();
+        var found = new HashMap<Serializable, T>();
+        var missingIds = new ArrayList<Serializable>();
+
+        for (var id : new LinkedHashSet<>(requestedIds)) {
+            ormCache.getFromCache(id, cls).ifPresentOrElse(cached -> found.put(id, cached), () -> missingIds.add(id));
+        }
+        var cachedCount = found.size();
+        found.putAll(loadAllFromDb(missingIds, cls));
+
+        LOGGER.info("{} {} ids: {} from cache, {} loaded from DB", ids.size(), cls.getSimpleName(),
+                cachedCount, found.size() - cachedCount);
+
+        return requestedIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Loads rows by id with IN queries and caches them. Synchronized because the {@link CoalescingLoader} calls it
+     * from its own thread.
+     */
+    private <T> Map<Serializable, T> loadAllFromDb(List<Serializable> missingIds, Class<T> cls) throws SQLException {
+        return loadAllFromDb(missingIds, cls, batchSize);
     }
 
-    private <T1> Optional<T1> loadFromDb(Serializable id, Class<T1> cls) {
+    private synchronized <T> Map<Serializable, T> loadAllFromDb(List<Serializable> missingIds, Class<T> cls, int idsPerQuery) throws SQLException {
+        var found = new HashMap<Serializable, T>();
+        var chunkSize = Math.min(idsPerQuery, MAX_STATEMENT_PARAMETERS);
+        var rowMapper = getRowMapper(cls);
+        var parentFetcher = newParentFetcher(cls);
+
+        for (int from = 0; from < missingIds.size(); from += chunkSize) {
+            var chunk = missingIds.subList(from, Math.min(from + chunkSize, missingIds.size()));
+            var parameterCount = paddedSize(chunk.size(), chunkSize);
+            PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(cls, SELECT_BY_IDS, parameterCount));
+
+            for (int i = 0; i < parameterCount; i++) {
+                preparedStatement.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).toString());
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    T resultFromDb = rowMapper.mapRow(resultSet);
+                    found.put(OrmManagerUtil.getId(resultFromDb), resultFromDb);
+                    ormCache.putToCache(resultFromDb);
+                    addParents(parentFetcher, resultFromDb, resultSet);
+                }
+            }
+        }
+        fetchParents(parentFetcher);
+        return found;
+    }
+
+    private synchronized <T1> Optional<T1> loadFromDb(Serializable id, Class<T1> cls) {
 
         if (id == null) {
             LOGGER.info("Object not found id DB");
@@ -615,20 +1155,23 @@ public class OrmManager implements IOrmManager {
         }
 
         T1 t = null;
-        String sqlStatement = "SELECT * FROM "
-                .concat(OrmManagerUtil.getTableName(cls))
-                .concat(" WHERE id='")
-                .concat(id.toString())
-                .concat("';");
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement)) {
-            ResultSet resultSet = preparedStatement.executeQuery();
+        String sqlStatement = sqlTemplates.get(cls, SELECT_BY_ID);
+
+        try {
+            PreparedStatement preparedStatement = statementCache.prepare(sqlStatement);
+            preparedStatement.setString(1, id.toString());
             t = cls.getDeclaredConstructor().newInstance();
 
-            if (resultSet.next()) {
-                t = mapperToObject(resultSet, t).orElseThrow();
-                ormCache.putToCache(t);
+            var parentFetcher = newParentFetcher(cls);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    t = getRowMapper(cls).mapRow(resultSet);
+                    ormCache.putToCache(t);
+                    addParents(parentFetcher, t, resultSet);
+                }
             }
+            fetchParents(parentFetcher);
         } catch (SQLException | ReflectiveOperationException e) {
             LOGGER.info(String.valueOf(e));
         }
@@ -637,58 +1180,221 @@ public class OrmManager implements IOrmManager {
     }
 
     @Override
-    @SneakyThrows({ReflectiveOperationException.class, SQLException.class})
-    public <T> List<T> findAll(Class<T> cls) {
+    @SneakyThrows(SQLException.class)
+    public synchronized <T> List<T> findAll(Class<T> cls) {
 
-        List<T> allEntities = new ArrayList<>();
-        String sqlStatement = "SELECT * FROM " + getTableName(cls);
+        String sqlStatement = sqlTemplates.get(cls, SELECT_ALL);
         LOGGER.info("sqlStatement {}", sqlStatement);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement)) {
-            ResultSet resultSet = preparedStatement.executeQuery();
+        return readAll(cls, statementCache.prepare(sqlStatement));
+    }
+
+    /**
+     * Criteria query, see {@link #query(Class)}.
+     */
+    @SneakyThrows(SQLException.class)
+    public synchronized <T> List<T> findAll(Query<T> query) {
+        String sqlStatement = sqlTemplates.get(query);
+        LOGGER.info("sqlStatement {}", sqlStatement);
+        PreparedStatement preparedStatement = statementCache.prepare(sqlStatement);
+        var parameters = query.getParameters();
+
+        for (int i = 0; i < parameters.length; i++) {
+            preparedStatement.setObject(i + 1, parameters[i]);
+        }
+        return readAll(query.getEntityClass(), preparedStatement);
+    }
+
+    /**
+     * Entities of every row of the statement, cached instances first.
+     */
+    private <T> List<T> readAll(Class<T> cls, PreparedStatement preparedStatement) throws SQLException {
+        List<T> allEntities = new ArrayList<>();
+        var parentFetcher = newParentFetcher(cls);
+
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            var rowMapper = getRowMapper(cls);
+
             while (resultSet.next()) {
-                var id = isIdFieldNumericType(cls) ?
-                        resultSet.getLong(getIdFieldName(cls)) : UUID.fromString(resultSet.getString(getIdFieldName(cls)));
-
-                this.ormCache.getFromCache(id, cls)
-                        .ifPresentOrElse(
-                                allEntities::add,
-                                () -> {
-                                    try {
-                                        T resultFromDb = cls.getConstructor().newInstance();
-                                        mapperToObject(resultSet, resultFromDb);
-                                        allEntities.add(resultFromDb);
-                                        ormCache.putToCache(resultFromDb);
-                                    } catch (ReflectiveOperationException e) {
-                                        LOGGER.error(e.getMessage(), "When trying to ");
-                                    }
-                                }
-                        );
+                var id = rowMapper.readId(resultSet);
+                var cached = ormCache.getFromCache(id, cls);
+
+                if (cached.isPresent()) {
+                    allEntities.add(cached.get());
+                } else {
+                    T resultFromDb = rowMapper.mapRow(resultSet);
+                    allEntities.add(resultFromDb);
+                    ormCache.putToCache(resultFromDb);
+                    addParents(parentFetcher, resultFromDb, resultSet);
+                }
             }
         }
+        fetchParents(parentFetcher);
         return allEntities;
     }
 
+    /**
+     * Criteria query on the entity, compiled to a parameterized SELECT so that only matching rows are read.
+     */
+    @Override
+    public <T> Query<T> query(Class<T> cls) {
+        return new Query<>(this, cls);
+    }
+
+    /**
+     * First page, or the page after the entity with id {@code afterId}, of at most {@code limit} entities ordered by
+     * id. Each page is one {@code WHERE id > ? ORDER BY id LIMIT ?} query, so a late page costs the same as the first.
+     */
+    @Override
+    public <T> Page<T> findPage(Class<T> cls, Serializable afterId, int limit) {
+        return findPage(cls, null, null, afterId, limit);
+    }
+
+    /**
+     * Keyset page ordered by {@code sortColumn} and then by id, starting after the row with
+     * {@code (afterSortValue, afterId)}; the first page when {@code afterId} is {@code null}. The sort column should
+     * be indexed and hold no NULLs. Pages are cached and get their parents like {@link #findAll}.
+     *
+     * @param sortColumn column of the entity, or the name of its field, or {@code null} to order by id only
+     * @throws OrmFieldTypeException    when the entity has no such column
+     * @throws IllegalArgumentException for a limit below 1, or a missing sort value after the first page
+     */
+    @Override
+    @SneakyThrows(SQLException.class)
+    public synchronized <T> Page<T> findPage(Class<T> cls, String sortColumn, Object afterSortValue, Serializable afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive, was " + limit);
+        }
+        var metadata = getMetadata(cls);
+        var sortColumnName = sortColumn == null ? null : metadata.resolveColumnName(sortColumn);
+        var sorted = sortColumnName != null && !sortColumnName.equals(metadata.resolveColumnName(metadata.getIdColumnName()));
+        var sortIndex = sorted ? metadata.getSelectIndex(sortColumnName) : 0;
+
+        if (sorted && afterId != null && afterSortValue == null) {
+            throw new IllegalArgumentException("A page after id " + afterId + " sorted by " + sortColumn + " needs its sort value");
+        }
+        PreparedStatement preparedStatement = statementCache.prepare(
+                sqlTemplates.get(cls, afterId == null ? SELECT_FIRST_PAGE : SELECT_PAGE_AFTER, sortIndex));
+        var parameterIndex = 1;
+
+        if (afterId != null) {
+            if (sorted) {
+                preparedStatement.setObject(parameterIndex++, afterSortValue);
+                preparedStatement.setObject(parameterIndex++, afterSortValue);
+            }
+            preparedStatement.setString(parameterIndex++, afterId.toString());
+        }
+        preparedStatement.setInt(parameterIndex, limit + 1);
+
+        var content = new ArrayList<T>();
+        var parentFetcher = newParentFetcher(cls);
+        Serializable lastId = null;
+        Object lastSortValue = null;
+        var hasNext = false;
+
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            var rowMapper = getRowMapper(cls);
+
+            while (resultSet.next()) {
+                if (content.size() == limit) {
+                    hasNext = true;
+                    break;
+                }
+                lastId = rowMapper.readId(resultSet);
+                lastSortValue = sorted ? resultSet.getObject(sortIndex) : null;
+                var cached = ormCache.getFromCache(lastId, cls);
+
+                if (cached.isPresent()) {
+                    content.add(cached.get());
+                } else {
+                    T resultFromDb = rowMapper.mapRow(resultSet);
+                    content.add(resultFromDb);
+                    ormCache.putToCache(resultFromDb);
+                    addParents(parentFetcher, resultFromDb, resultSet);
+                }
+            }
+        }
+        fetchParents(parentFetcher);
+
+        return new Page<>(cls, content, limit, sorted ? sortColumnName : null, lastSortValue, lastId, hasNext);
+    }
+
+    /**
+     * Page following the given one, empty when that was the last.
+     */
+    @Override
+    public <T> Page<T> nextPage(Page<T> page) {
+        if (!page.hasNext()) {
+            return new Page<>(page.getEntityClass(), List.of(), page.getLimit(), page.getSortColumn(), null, null, false);
+        }
+        return findPage(page.getEntityClass(), page.getSortColumn(), page.getLastSortValue(), page.getLastId(), page.getLimit());
+    }
+
+    /**
+     * Entities read row by row from a forward-only, read-only SELECT with the dialect's streaming fetch size, so that
+     * the table is never held in memory at once. The query is closed when the last row has been read or when the
+     * stream is closed, so a stream that may not be read to the end belongs in a try-with-resources block. Inside a
+     * unit of work the rows are not streamed but fetched with the driver's default fetch size.
+     */
     @Override
     public <T> Stream<T> findAllAsStream(Class<T> cls) throws SQLException {
-        String sqlStatement = "SELECT * FROM " + cls.getAnnotation(Table.class).name();
+        String sqlStatement = sqlTemplates.get(cls, SELECT_ALL);
         LOGGER.info("sqlStatement {}", sqlStatement);
-        PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement);
-        ResultSet resultSet = preparedStatement.executeQuery();
 
-        return StreamSupport.stream(new OrmSpliterator<T>(resultSet, cls, ormCache), false);
+        return streamOf(cls, openStreamingQuery(sqlStatement));
     }
 
+    /**
+     * Criteria query read like {@link #findAllAsStream(Class)}.
+     */
+    public <T> Stream<T> findAllAsStream(Query<T> query) throws SQLException {
+        String sqlStatement = sqlTemplates.get(query);
+        LOGGER.info("sqlStatement {}", sqlStatement);
+
+        return streamOf(query.getEntityClass(), openStreamingQuery(sqlStatement, query.getParameters()));
+    }
+
+    private <T> Stream<T> streamOf(Class<T> cls, StreamingQuery query) {
+        var parentFetcher = newParentFetcher(cls);
+        var spliterator = parentFetcher == null ?
+                new OrmSpliterator<T>(query.getResultSet(), getRowMapper(cls), cls, ormCache) :
+                new OrmSpliterator<T>(query.getResultSet(), getRowMapper(cls), cls, ormCache, parentFetcher, batchSize);
+        spliterator.closeWhenExhausted(query);
+
+        return StreamSupport.stream(spliterator, false).onClose(query::close);
+    }
+
+    /**
+     * Same streaming query as {@link #findAllAsStream}, closed after the last row or by {@link IterableORM#close()}.
+     */
     @Override
     public <T> IterableORM<T> findAllAsIterable(Class<T> cls) throws SQLException {
-        String sqlStatement = "SELECT * FROM " + cls.getAnnotation(Table.class).name();
+        String sqlStatement = sqlTemplates.get(cls, SELECT_ALL);
+        LOGGER.info("sqlStatement {}", sqlStatement);
+
+        return iterableOf(cls, openStreamingQuery(sqlStatement));
+    }
+
+    /**
+     * Criteria query read like {@link #findAllAsIterable(Class)}.
+     */
+    public <T> IterableORM<T> findAllAsIterable(Query<T> query) throws SQLException {
+        String sqlStatement = sqlTemplates.get(query);
         LOGGER.info("sqlStatement {}", sqlStatement);
-        PreparedStatement preparedStatement = connection.prepareStatement(sqlStatement);
-        ResultSet resultSet = preparedStatement.executeQuery();
+
+        return iterableOf(query.getEntityClass(), openStreamingQuery(sqlStatement, query.getParameters()));
+    }
+
+    private <T> IterableORM<T> iterableOf(Class<T> cls, StreamingQuery query) {
+        ResultSet resultSet = query.getResultSet();
+        var rowMapper = getRowMapper(cls);
 
         return new IterableORM<T>() {
             @Override
             public boolean hasNext() {
+                if (query.isClosed()) {
+                    return false;
+                }
                 try {
                     var result = resultSet.next();
                     if (!result) {
@@ -703,33 +1409,170 @@ public class OrmManager implements IOrmManager {
             @SneakyThrows
             @Override
             public T next() {
-                var id = OrmManagerUtil.isIdFieldNumericType(cls) ? resultSet.getLong(OrmManagerUtil.getIdFieldName(cls))
-                        : UUID.fromString(resultSet.getString(OrmManagerUtil.getIdFieldName(cls)));
-                return (ormCache.getFromCache(id, cls)
-                        .or(() -> {
-                                    T resultFromDb = null;
-                                    try {
-                                        resultFromDb = cls.getConstructor().newInstance();
-                                        ObjectMapper.mapperToObject(resultSet, resultFromDb);
-                                        ormCache.putToCache(resultFromDb);
-
-                                    } catch (ReflectiveOperationException e) {
-                                        LOGGER.warn(e.getMessage());
-                                    }
-                                    return Optional.ofNullable(resultFromDb);
-                                }
-                        )).get();
+                var id = rowMapper.readId(resultSet);
+                var cached = ormCache.getFromCache(id, cls);
+
+                if (cached.isPresent()) {
+                    return cached.get();
+                }
+                T resultFromDb = rowMapper.mapRow(resultSet);
+                ormCache.putToCache(resultFromDb);
+                return resultFromDb;
             }
 
             @Override
             public void close() {
-                try {
-                    resultSet.close();
-                    LOGGER.info("ResultSet closed");
-                } catch (SQLException e) {
-                    LOGGER.warn(e.getMessage());
+                query.close();
+            }
+        };
+    }
+
+    /**
+     * Outside a unit of work the query gets a connection of its own and is streamed, so the manager can be used while
+     * the rows are read. Inside one it runs on the manager's connection to see the pending writes, with the driver's
+     * default fetch size instead of streaming, because a MySQL streaming result set would leave that connection
+     * unusable for parent fetches, lazy loads and any other call until the query is closed.
+     */
+    private StreamingQuery openStreamingQuery(String sql, Object... parameters) throws SQLException {
+        var dedicated = unitOfWork == null && streamConnections != null;
+        var queryConnection = dedicated ? streamConnections.get() : connection;
+        var fetchSize = dedicated ? getDialect().getStreamingFetchSize() : 0;
+
+        return StreamingQuery.open(queryConnection, dedicated, sql, fetchSize, parameters);
+    }
+
+    /**
+     * Parallel stream over the rows of an entity with a numeric id. The range from the lowest to the highest id is
+     * halved while both halves hold at least {@link #getBatchSize()} rows, each part reads its ids on a connection of
+     * its own, and the row counts taken while splitting are size estimates only, since rows may change before they
+     * are read. Parents are not batch fetched. Entities without a numeric id, and calls inside a unit of work, get {@link #findAllAsStream} instead.
+     */
+    @Override
+    public synchronized <T> Stream<T> findAllAsParallelStream(Class<T> cls) throws SQLException {
+        if (!getMetadata(cls).isNumericId() || unitOfWork != null || streamConnections == null) {
+            return findAllAsStream(cls).parallel();
+        }
+        long minId;
+        long maxId;
+        long rowCount;
+        PreparedStatement preparedStatement = statementCache.prepare(sqlTemplates.get(cls, ID_RANGE));
+
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            resultSet.next();
+            minId = resultSet.getLong(1);
+            maxId = resultSet.getLong(2);
+            rowCount = resultSet.getLong(3);
+        }
+
+        var openQueries = new ConcurrentLinkedQueue<StreamingQuery>();
+        var rangeQueries = new IdRangeSpliterator.RangeQueries() {
+            @Override
+            public long count(long fromId, long toId) throws SQLException {
+                try (var countConnection = streamConnections.get();
+                     var countStatement = countConnection.prepareStatement(sqlTemplates.get(cls, COUNT_BY_ID_RANGE))) {
+                    countStatement.setLong(1, fromId);
+                    countStatement.setLong(2, toId);
+
+                    try (ResultSet resultSet = countStatement.executeQuery()) {
+                        return resultSet.next() ? resultSet.getLong(1) : 0;
+                    }
+                }
+            }
+
+            @Override
+            public StreamingQuery open(long fromId, long toId) throws SQLException {
+                var query = openStreamingQuery(sqlTemplates.get(cls, SELECT_BY_ID_RANGE), fromId, toId);
+                openQueries.add(query);
+                return query;
+            }
+        };
+        LOGGER.info("Parallel stream of {} {} rows, ids {}..{}", rowCount, cls.getSimpleName(), minId, maxId);
+
+        var spliterator = new IdRangeSpliterator<>(cls, getRowMapper(cls), ormCache, rangeQueries,
+                minId, maxId, rowCount, batchSize);
+
+        return StreamSupport.stream(spliterator, true).onClose(() -> openQueries.forEach(StreamingQuery::close));
+    }
+
+    /**
+     * Fetcher for the parents of loaded entities, or {@code null} when parent batch fetching is off or the class
+     * has no {@code @ManyToOne}.
+     */
+    private ParentFetcher newParentFetcher(Class<?> cls) {
+        if (!parentBatchFetchEnabled || !isChild(cls)) {
+            return null;
+        }
+        return new ParentFetcher((entityClass, ids, idsPerQuery) -> loadAllFromDb(ids, entityClass, idsPerQuery), ormCache, batchSize);
+    }
+
+    private static void addParents(ParentFetcher parentFetcher, Object entity, ResultSet resultSet) throws SQLException {
+        if (parentFetcher != null) {
+            parentFetcher.add(entity, resultSet);
+        }
+    }
+
+    private static void fetchParents(ParentFetcher parentFetcher) throws SQLException {
+        if (parentFetcher != null) {
+            parentFetcher.fetch();
+        }
+    }
+
+    /**
+     * Row mapper for the SELECTs from {@link SqlTemplateCache}, which list the entity's columns explicitly, so
+     * columns are read by their position in that list.
+     */
+    private <T> RowMapper<T> getRowMapper(Class<T> cls) {
+        RowMapper<T> rowMapper;
+
+        var generatedMapper = GeneratedMappers.find(cls);
+
+        if (generatedMapper.isPresent()) {
+            rowMapper = generatedMapper.get().projection();
+        } else if (compiledMappersEnabled) {
+            rowMapper = CompiledRowMapper.forEntity(cls).projection();
+        } else {
+            rowMapper = new ReflectiveRowMapper<>(cls);
+        }
+        return lazyLoadingEnabled && isParent(cls) ? withLazyChildren(rowMapper) : rowMapper;
+    }
+
+    private <T> RowMapper<T> withLazyChildren(RowMapper<T> rowMapper) {
+        return new RowMapper<>() {
+            @Override
+            public T mapRow(ResultSet resultSet) throws SQLException {
+                T entity = rowMapper.mapRow(resultSet);
+
+                for (var relationship : getMetadata(entity.getClass()).getOneToManyRelationships()) {
+                    if (relationship.getField().getType().isAssignableFrom(LazyList.class)) {
+                        var childClass = relationship.getTargetClass();
+                        relationship.getAccessor().set(entity, new LazyList<>(
+                                () -> loadChildren(childClass, entity), () -> countChildren(childClass, entity)));
+                    }
                 }
+                return entity;
+            }
+
+            @Override
+            public Serializable readId(ResultSet resultSet) throws SQLException {
+                return rowMapper.readId(resultSet);
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Closes the cached statements, then the connection and, when the manager created it, the connection pool.
+     */
+    @Override
+    public void close() throws SQLException {
+        disableLoadCoalescing();
+        try {
+            statementCache.close();
+            connection.close();
+        } finally {
+            if (ownedDataSource != null) {
+                ownedDataSource.close();
+            }
+        }
+        LOGGER.info("OrmManager closed");
+    }
+}
@@ -3,6 +3,9 @@ package com.ormanager.orm;
 import com.ormanager.SchemaOperationType;
 import com.ormanager.orm.annotation.*;
 import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.mapper.GeneratedMappers;
+import com.ormanager.orm.metadata.ColumnMetadata;
+import com.ormanager.orm.metadata.RelationshipMetadata;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
@@ -11,14 +14,15 @@ import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
 
 @Slf4j
 public final class OrmManagerUtil {
@@ -28,32 +32,17 @@ public final class OrmManagerUtil {
     }
 
     static Serializable getId(Object o) {
-
-        Optional<Field> optionalId = getIdField(o);
-
-        if (optionalId.isEmpty()) return null;
-
-        optionalId.get().setAccessible(true);
-
-        try {
-            return (Serializable) optionalId.get().get(o);
-        } catch (IllegalAccessException e) {
-            LOGGER.error(e.getMessage(), "When trying to get Serializable ID.");
-            return null;
-        }
+        return getMetadata(o.getClass()).getId(o);
     }
 
     static Optional<Field> getIdField(Object o) {
-        return Arrays.stream(o.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(Id.class))
-                .findAny();
+        var metadata = getMetadata(o.getClass());
+
+        return metadata.hasIdColumn() ? Optional.of(metadata.getIdField()) : Optional.empty();
     }
 
     static Field getIdField(Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(Id.class))
-                .findAny()
-                .orElseThrow(() -> new OrmFieldTypeException("ID field not found!"));
+        return getMetadata(clazz).getIdField();
     }
 
     static String getSqlIdTypeForFieldForGivenOperation(SchemaOperationType operationType, Field field) {
@@ -74,36 +63,29 @@ public final class OrmManagerUtil {
     static String getRecordId(Object recordInDb) {
         if (recordInDb == null) return null;
 
-        Optional<Field> optionalId = getIdField(recordInDb);
-        if (optionalId.isEmpty()) return null;
-
-        optionalId.get().setAccessible(true);
-        Object record = null;
-        try {
-            record = optionalId.get().get(recordInDb);
-        } catch (IllegalAccessException e) {
-            LOGGER.error(e.getMessage(), "When getting record ID to String");
-        }
+        var record = getMetadata(recordInDb.getClass()).getId(recordInDb);
         return record != null ? record.toString() : null;
     }
 
     static boolean doesClassHaveGivenRelationship(Class<?> clazz, Class<? extends Annotation> relationAnnotation) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .anyMatch(field -> field.isAnnotationPresent(relationAnnotation));
+        return !getRelationshipFields(clazz, relationAnnotation).isEmpty();
     }
 
     static List<Field> getRelationshipFields(Class<?> clazz, Class<? extends Annotation> relationAnnotation) {
+        var metadata = getMetadata(clazz);
+
+        if (relationAnnotation == ManyToOne.class) {
+            return metadata.getManyToOneRelationships().stream().map(RelationshipMetadata::getField).toList();
+        } else if (relationAnnotation == OneToMany.class) {
+            return metadata.getOneToManyRelationships().stream().map(RelationshipMetadata::getField).toList();
+        }
         return Arrays.stream(clazz.getDeclaredFields())
                 .filter(field -> field.isAnnotationPresent(relationAnnotation))
                 .toList();
     }
 
     static String getTableClassName(Object t) {
-        return t.getClass().getAnnotation(Table.class).name();
-    }
-
-    static List<Field> getAllDeclaredFieldsFromObject(Object t) {
-        return Arrays.asList(t.getClass().getDeclaredFields());
+        return getMetadata(t.getClass()).getTableName();
     }
 
     static String getAllValuesFromListToString(Object t) {
@@ -111,23 +93,9 @@ public final class OrmManagerUtil {
     }
 
     static List<String> getAllValuesFromObject(Object t) {
-        List<String> strings = new ArrayList<>();
-        for (Field field : getAllDeclaredFieldsFromObject(t)) {
-            if (field.isAnnotationPresent(Column.class)) {
-                if (!Objects.equals(field.getDeclaredAnnotation(Column.class).name(), "")) {
-                    strings.add(field.getDeclaredAnnotation(Column.class).name());
-                } else {
-                    strings.add(field.getName());
-                }
-            } else if (field.isAnnotationPresent(ManyToOne.class)) {
-                strings.add(field.getDeclaredAnnotation(ManyToOne.class).columnName());
-            } else if (!Collection.class.isAssignableFrom(field.getType()) && !isIdFieldNumericType(t.getClass())) {
-                strings.add(field.getName());
-            } else if (!Collection.class.isAssignableFrom(field.getType()) && isIdFieldNumericType(t.getClass()) && !field.isAnnotationPresent(Id.class)) {
-                strings.add(field.getName());
-            }
-        }
-        return strings;
+        return getMetadata(t.getClass()).getInsertColumns().stream()
+                .map(ColumnMetadata::getName)
+                .toList();
     }
 
     static String getSqlTypeForField(Field field) {
@@ -158,35 +126,20 @@ public final class OrmManagerUtil {
     }
 
     static String getTableName(Class<?> clazz) {
-        var tableAnnotation = Optional.ofNullable(clazz.getAnnotation(Table.class));
-
-        return tableAnnotation.isPresent() ? tableAnnotation.get().name() : clazz.getSimpleName().toLowerCase();
-    }
-
-    static String getColumnFieldsWithValuesToString(Object t) {
-        try {
-            return String.join(", ", getColumnFieldsWithValues(t));
-        } catch (IllegalAccessException e) {
-            LOGGER.error(e.getMessage());
-            return "";
-        }
+        return getMetadata(clazz).getTableName();
     }
 
     static List<Field> getBasicFieldsFromClass(Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(field -> !field.isAnnotationPresent(Id.class))
-                .filter(field -> !field.isAnnotationPresent(OneToMany.class))
-                .filter(field -> !field.isAnnotationPresent(ManyToOne.class))
-                .filter(field -> field.getType() != Collection.class)
-                .toList();
+        return getMetadata(clazz).getBasicFields();
     }
 
     static String getIdFieldName(Class<?> clazz) throws NoSuchFieldException {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(Id.class))
-                .findAny()
-                .orElseThrow(() -> new NoSuchFieldException(String.format("ID field not found in class %s !", clazz)))
-                .getName();
+        var metadata = getMetadata(clazz);
+
+        if (!metadata.hasIdColumn()) {
+            throw new NoSuchFieldException(String.format("ID field not found in class %s !", clazz));
+        }
+        return metadata.getIdColumnName();
     }
 
     static String getFieldName(Field field) {
@@ -198,186 +151,163 @@ public final class OrmManagerUtil {
         return field.getName();
     }
 
-    static List<String> getColumnFieldsWithValues(Object t) throws IllegalAccessException {
-        List<String> strings = new ArrayList<>();
-
-        for (Field field : getAllDeclaredFieldsFromObject(t)) {
-            field.setAccessible(true);
-
-            if (field.isAnnotationPresent(Column.class)) {
-                if (!Objects.equals(field.getDeclaredAnnotation(Column.class).name(), "")) {
-                    strings.add(field.getDeclaredAnnotation(Column.class).name() + "='" + field.get(t) + "'");
-                } else {
-                    strings.add(field.getName() + "='" + field.get(t) + "'");
-                }
-            } else if (field.isAnnotationPresent(ManyToOne.class) && field.get(t) != null) {
-                if (getRecordId(field.get(t)) != null) {
-                    String recordId = getRecordId(field.get(t));
-                    strings.add(field.getDeclaredAnnotation(ManyToOne.class).columnName() + "='" + recordId + "'");
-                }
-            } else if (!Collection.class.isAssignableFrom(field.getType())
-                    && !field.isAnnotationPresent(Id.class)
-                    && !field.isAnnotationPresent(ManyToOne.class)) {
-                strings.add(field.getName() + "='" + field.get(t) + "'");
-            }
+    static void mapStatement(Object t, PreparedStatement preparedStatement) throws SQLException, IllegalAccessException {
+        bindInsertStatement(t, preparedStatement);
+
+        LOGGER.info("PREPARED STATEMENT : {}", preparedStatement);
+        preparedStatement.executeUpdate();
+    }
+
+    static void bindInsertStatement(Object t, PreparedStatement preparedStatement) throws SQLException {
+        var generatedMapper = GeneratedMappers.find(t.getClass());
+
+        if (generatedMapper.isPresent()) {
+            generatedMapper.get().bindInsert(t, preparedStatement);
+        } else {
+            bindInsertColumns(t, preparedStatement);
+        }
+    }
+
+    /**
+     * Binds the UPDATE from {@code EntityMetadata#getUpdateByIdSql()}: the updated columns, then the id.
+     */
+    static void bindUpdateStatement(Object t, PreparedStatement preparedStatement) throws SQLException {
+        var generatedMapper = GeneratedMappers.find(t.getClass());
+
+        if (generatedMapper.isPresent()) {
+            generatedMapper.get().bindUpdate(t, preparedStatement);
+        } else {
+            var columns = getMetadata(t.getClass()).getUpdateColumns();
+
+            bindColumns(t, columns, preparedStatement);
+            preparedStatement.setString(columns.size() + 1, getRecordId(t));
         }
-        return strings;
     }
 
-    static List<Field> getAllColumnsButId(Object t) {
-        return Arrays.stream(t.getClass().getDeclaredFields())
-                .filter(v -> !v.isAnnotationPresent(Id.class))
-                .collect(Collectors.toList());
+    /**
+     * Binds one row of a multi-row upsert, starting at {@code firstIndex}.
+     *
+     * @return index of the first parameter of the next row
+     */
+    static int bindUpsertRow(Object t, PreparedStatement preparedStatement, int firstIndex) throws SQLException {
+        var columns = getMetadata(t.getClass()).getUpsertColumns();
+
+        bindColumns(t, columns, preparedStatement, firstIndex);
+        return firstIndex + columns.size();
+    }
+
+    /**
+     * Binds an UPDATE of the given columns only, then the id.
+     */
+    static void bindUpdateStatement(Object t, PreparedStatement preparedStatement, List<ColumnMetadata> columns) throws SQLException {
+        bindColumns(t, columns, preparedStatement);
+        preparedStatement.setString(columns.size() + 1, getRecordId(t));
     }
 
-    static Long getQuantityOfAllColumnsButIdAndOneToMany(Object t) {
-        return Arrays.stream(t.getClass().getDeclaredFields())
-                .filter(v -> !v.isAnnotationPresent(Id.class))
-                .filter(v -> !v.isAnnotationPresent(OneToMany.class))
-                .count();
+    private static void bindInsertColumns(Object t, PreparedStatement preparedStatement) throws SQLException {
+        bindColumns(t, getMetadata(t.getClass()).getInsertColumns(), preparedStatement);
     }
 
-    static Long getAllColumnsButOneToMany(Object t) {
-        return Arrays.stream(t.getClass().getDeclaredFields())
-                .filter(v -> !v.isAnnotationPresent(OneToMany.class))
-                .count();
+    private static void bindColumns(Object t, List<ColumnMetadata> columns, PreparedStatement preparedStatement) throws SQLException {
+        bindColumns(t, columns, preparedStatement, 1);
     }
 
-    static void mapStatement(Object t, PreparedStatement preparedStatement) throws SQLException, IllegalAccessException {
-        var objectFields = isIdFieldNumericType(t.getClass()) ? getAllColumnsButId(t) : getAllDeclaredFieldsFromObject(t);
-
-        var index = 0;
-        for (Field field : objectFields) {
-            field.setAccessible(true);
-            index = objectFields.indexOf(field) + 1;
-            if (field.getType() == String.class) {
-                preparedStatement.setString(index, (String) field.get(t));
-            } else if (field.getType() == Integer.class) {
-                preparedStatement.setInt(index, (Integer) field.get(t));
-            } else if (field.getType() == int.class) {
-                preparedStatement.setInt(index, (int) field.get(t));
-            } else if (field.getType() == long.class) {
-                preparedStatement.setLong(index, (long) field.get(t));
-            } else if (field.getType() == Double.class) {
-                preparedStatement.setDouble(index, (Double) field.get(t));
-            } else if (field.getType() == double.class) {
-                preparedStatement.setDouble(index, (double) field.get(t));
-            } else if (field.getType() == Boolean.class) {
-                preparedStatement.setBoolean(index, (Boolean) field.get(t));
-            } else if (field.getType() == boolean.class) {
-                preparedStatement.setBoolean(index, (boolean) field.get(t));
-            } else if (field.getType() == LocalDate.class) {
-                Date date = Date.valueOf((LocalDate) field.get(t));
+    private static void bindColumns(Object t, List<ColumnMetadata> columns, PreparedStatement preparedStatement,
+                                    int firstIndex) throws SQLException {
+        var metadata = getMetadata(t.getClass());
+
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            var accessor = column.getAccessor();
+            var type = column.getType();
+            var index = firstIndex + i;
+
+            if (column.isManyToOne()) {
+                setParentFieldOfChildForStatement(accessor.get(t), preparedStatement, index);
+            } else if (type == int.class) {
+                preparedStatement.setInt(index, accessor.getInt(t));
+            } else if (type == long.class) {
+                preparedStatement.setLong(index, accessor.getLong(t));
+            } else if (type == double.class) {
+                preparedStatement.setDouble(index, accessor.getDouble(t));
+            } else if (type == boolean.class) {
+                preparedStatement.setBoolean(index, accessor.getBoolean(t));
+            } else if (accessor.get(t) == null) {
+                preparedStatement.setObject(index, null);
+            } else if (type == String.class) {
+                preparedStatement.setString(index, (String) accessor.get(t));
+            } else if (type == Integer.class) {
+                preparedStatement.setInt(index, (Integer) accessor.get(t));
+            } else if (type == Double.class) {
+                preparedStatement.setDouble(index, (Double) accessor.get(t));
+            } else if (type == Boolean.class) {
+                preparedStatement.setBoolean(index, (Boolean) accessor.get(t));
+            } else if (type == LocalDate.class) {
+                Date date = Date.valueOf((LocalDate) accessor.get(t));
                 preparedStatement.setDate(index, date);
-            } else if (field.getType() == Long.class) {
-                preparedStatement.setLong(index, (Long) field.get(t));
-            } else if (field.isAnnotationPresent(Id.class) && !isIdFieldNumericType(field)) {
-                preparedStatement.setString(index, field.get(t).toString());
-            } else if (field.getType() == LocalTime.class) {
+            } else if (type == Long.class) {
+                preparedStatement.setLong(index, (Long) accessor.get(t));
+            } else if (column.isId() && !metadata.isNumericId()) {
+                preparedStatement.setString(index, accessor.get(t).toString());
+            } else if (type == LocalTime.class) {
                 LocalDate localDate = LocalDate.now();
-                LocalTime localTime = (LocalTime) field.get(t);
+                LocalTime localTime = (LocalTime) accessor.get(t);
                 Timestamp timestamp = Timestamp.valueOf(localTime.atDate(localDate));
                 preparedStatement.setTimestamp(index, timestamp);
-            } else if (field.getType() == LocalDateTime.class) {
-                LocalDateTime localDateTime = (LocalDateTime) field.get(t);
+            } else if (type == LocalDateTime.class) {
+                LocalDateTime localDateTime = (LocalDateTime) accessor.get(t);
                 preparedStatement.setTimestamp(index, Timestamp.valueOf(localDateTime));
-            } else if (!field.isAnnotationPresent(OneToMany.class)) {
+            } else {
                 preparedStatement.setObject(index, null);
             }
         }
-        setParentFieldOfChildForStatement(t, preparedStatement, index);
-
-        LOGGER.info("PREPARED STATEMENT : {}", preparedStatement);
-        preparedStatement.executeUpdate();
-    }
-
-    static String getInsertStatement(Object t) {
-        var length = getAllColumnsLengthForInsertStatement(t);
-
-        var questionMarks = IntStream.range(0, length)
-                .mapToObj(q -> "?")
-                .collect(Collectors.joining(","));
-
-        String sqlStatement = "INSERT INTO "
-                .concat(getTableClassName(t))
-                .concat("(")
-                .concat(getAllValuesFromListToString(t))
-                .concat(") VALUES(")
-                .concat(questionMarks)
-                .concat(");");
-
-        LOGGER.info("SQL STATEMENT : {}", sqlStatement);
-        return sqlStatement;
-    }
-
-    private static int getAllColumnsLengthForInsertStatement(Object t) {
-        return isIdFieldNumericType(t.getClass()) ? getQuantityOfAllColumnsButIdAndOneToMany(t).intValue() : getAllColumnsButOneToMany(t).intValue();
     }
 
     static boolean isParent(Class<?> keyClazz) {
-        return doesClassHaveGivenRelationship(keyClazz, OneToMany.class);
+        return getMetadata(keyClazz).isParent();
     }
 
     static boolean isChild(Class<?> keyClazz) {
-        return doesClassHaveGivenRelationship(keyClazz, ManyToOne.class);
+        return getMetadata(keyClazz).isChild();
     }
 
     public static List<Object> getChildren(Object parent) {
-        Optional<Field> children = Arrays.stream(parent.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(OneToMany.class))
-                .findFirst();
+        Optional<RelationshipMetadata> children = getMetadata(parent.getClass()).getOneToMany();
 
         if (children.isEmpty()) return null;
-        Field childrenField = children.get();
-
-        if (!Collection.class.isAssignableFrom(childrenField.getType())) return null;
+        var childrenRelationship = children.get();
 
-        childrenField.setAccessible(true);
+        if (!Collection.class.isAssignableFrom(childrenRelationship.getField().getType())) return null;
 
-        Object object = null;
-        try {
-            object = childrenField.get(parent);
-        } catch (IllegalAccessException e) {
-            LOGGER.error(e.getMessage(), "When trying to get children from parent that are not in cache");
-        }
+        Object object = childrenRelationship.getAccessor().get(parent);
         assert object != null;
+        if (object instanceof LazyList<?> lazyList && !lazyList.isLoaded()) return new ArrayList<>();
         return new ArrayList<>((Collection<?>) object);
     }
 
-    static Field getParent(Object childObject) {
+    static void setChildren(Object parent, List<?> children) {
+        getMetadata(parent.getClass()).getOneToMany()
+                .ifPresent(relationship -> relationship.getAccessor().set(parent, children));
+    }
+
+    static void setParent(Object child, Object parent) {
+        getMetadata(child.getClass()).getManyToOne()
+                .ifPresent(relationship -> relationship.getAccessor().set(child, parent));
+    }
 
-        Optional<Field> parent = Arrays.stream(childObject.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(ManyToOne.class))
-                .findFirst();
-        if (parent.isEmpty()) return null;
-        return parent.get();
-    }
-
-    private static void setParentFieldOfChildForStatement(Object o, PreparedStatement preparedStatement, int index) {
-        var objectManyToOneFields = getRelationshipFields(o.getClass(), ManyToOne.class);
-
-        for (var manyToOneField : objectManyToOneFields) {
-            manyToOneField.setAccessible(true);
-            Field[] parentFields = manyToOneField.getType().getDeclaredFields();
-
-            Arrays.stream(parentFields)
-                    .filter(field -> field.isAnnotationPresent(Id.class))
-                    .peek(field -> field.setAccessible(true))
-                    .forEach(field -> {
-                       for (var objectManyToOneField : objectManyToOneFields) {
-                           try {
-                               if (objectManyToOneField.get(o) != null && isIdFieldNumericType(o.getClass())) {
-                                   preparedStatement.setObject(index, field.get(objectManyToOneField.get(o)));
-                               } else if (objectManyToOneField.get(o) != null) {
-                                   preparedStatement.setString(index, field.get(objectManyToOneField.get(o)).toString());
-                               } else {
-                                   preparedStatement.setObject(index, null);
-                               }
-                           } catch (IllegalAccessException | SQLException e) {
-                               throw new RuntimeException(e);
-                           }
-                       }
-                    });
+    static Field getParent(Object childObject) {
+        return getMetadata(childObject.getClass()).getManyToOne()
+                .map(RelationshipMetadata::getField)
+                .orElse(null);
+    }
+
+    private static void setParentFieldOfChildForStatement(Object parent, PreparedStatement preparedStatement, int index) throws SQLException {
+        if (parent == null) {
+            preparedStatement.setObject(index, null);
+        } else if (getMetadata(parent.getClass()).isNumericId()) {
+            preparedStatement.setObject(index, getId(parent));
+        } else {
+            preparedStatement.setString(index, getRecordId(parent));
         }
     }
 
@@ -389,23 +319,39 @@ public final class OrmManagerUtil {
     }
 
     static boolean isIdFieldNumericType(Class<?> cls) {
-        return Number.class.isAssignableFrom( getIdField(cls).getType());
+        return getMetadata(cls).isNumericId();
     }
 
-    static void generateUuidForProperObject(Object object) throws IllegalAccessException {
-        if (getIdField(object.getClass()).getType() == UUID.class) {
-            var idField = getIdField(object).orElseThrow(() -> new OrmFieldTypeException("No ID field found!"));
-            idField.setAccessible(true);
-            idField.set(object, UUID.randomUUID());
+    static void generateUuidForProperObject(Object object) {
+        var metadata = getMetadata(object.getClass());
+
+        if (metadata.getIdField().getType() == UUID.class) {
+            metadata.setId(object, UUID.randomUUID());
         }
     }
 
-    static Field getChild(Object childObject) {
+    /**
+     * Smallest power of two not below {@code size}, capped at {@code limit}.
+     */
+    static int paddedSize(int size, int limit) {
+        return Math.min(limit, size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1);
+    }
 
-        Optional<Field> parent = Arrays.stream(childObject.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(OneToMany.class))
-                .findFirst();
-        if (parent.isEmpty()) return null;
-        return parent.get();
+    /**
+     * Foreign key in the given column of the current row, typed like the id of the referenced class.
+     */
+    static Serializable readForeignKey(ResultSet resultSet, int index, Class<?> targetClass) throws SQLException {
+        var value = resultSet.getString(index);
+
+        if (value == null) {
+            return null;
+        }
+        return getMetadata(targetClass).isNumericId() ? Long.valueOf(value) : UUID.fromString(value);
+    }
+
+    static Field getChild(Object childObject) {
+        return getMetadata(childObject.getClass()).getOneToMany()
+                .map(RelationshipMetadata::getField)
+                .orElse(null);
     }
-}
\ No newline at end of file
+}
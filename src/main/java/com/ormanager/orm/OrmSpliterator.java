@@ -1,49 +1,80 @@
 package com.ormanager.orm;
 
-import com.ormanager.orm.mapper.ObjectMapper;
+import com.ormanager.orm.exception.OrmQueryException;
+import com.ormanager.orm.mapper.ReflectiveRowMapper;
+import com.ormanager.orm.mapper.RowMapper;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Optional;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Spliterator;
-import java.util.UUID;
 import java.util.function.Consumer;
 
-import static com.ormanager.orm.OrmManagerUtil.getIdFieldName;
-import static com.ormanager.orm.OrmManagerUtil.isIdFieldNumericType;
-
 @Slf4j(topic = "OrmSpliterator")
 public class OrmSpliterator<T> implements Spliterator<T> {
 
     private Class<T> cls;
+    private RowMapper<T> rowMapper;
     private Cache ormCache;
     private ResultSet resultSet;
     private int counter = 0;
+    private StreamingQuery query;
+    private ParentFetcher parentFetcher;
+    private int pageSize = 1;
+    private final Deque<T> page = new ArrayDeque<>();
 
     public OrmSpliterator(ResultSet resultSet, Class<T> cls, Cache ormCache) {
+        this(resultSet, new ReflectiveRowMapper<>(cls), cls, ormCache);
+    }
+
+    public OrmSpliterator(ResultSet resultSet, RowMapper<T> rowMapper, Class<T> cls, Cache ormCache) {
         this.cls = cls;
+        this.rowMapper = rowMapper;
         this.ormCache = ormCache;
         this.resultSet = resultSet;
     }
 
-    private T getEntity(ResultSet resultSet) throws NoSuchFieldException, SQLException {
-        var id = isIdFieldNumericType(cls) ?
-                resultSet.getLong(getIdFieldName(cls)) : UUID.fromString(resultSet.getString(getIdFieldName(cls)));
-        return ormCache.getFromCache(id, cls)
-                .or(() -> {
-                            T resultFromDb = null;
-                            try {
-                                resultFromDb = cls.getConstructor().newInstance();
-                                ObjectMapper.mapperToObject(resultSet, resultFromDb);
-                                ormCache.putToCache(resultFromDb);
-
-                            } catch (ReflectiveOperationException e) {
-                                LOGGER.warn(e.getMessage());
-                            }
-                            return Optional.ofNullable(resultFromDb);
-                        }
-                ).get();
+    /**
+     * Reads the rows in pages of {@code pageSize} and resolves the parents of each page together before handing
+     * out its entities.
+     */
+    OrmSpliterator(ResultSet resultSet, RowMapper<T> rowMapper, Class<T> cls, Cache ormCache, ParentFetcher parentFetcher, int pageSize) {
+        this(resultSet, rowMapper, cls, ormCache);
+        this.parentFetcher = parentFetcher;
+        this.pageSize = pageSize;
+    }
+
+    private T getEntity(ResultSet resultSet) throws SQLException {
+        var id = rowMapper.readId(resultSet);
+        var cached = ormCache.getFromCache(id, cls);
+
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        T resultFromDb = rowMapper.mapRow(resultSet);
+        ormCache.putToCache(resultFromDb);
+        if (parentFetcher != null) {
+            parentFetcher.add(resultFromDb, resultSet);
+        }
+        return resultFromDb;
+    }
+
+    /**
+     * Query closed, instead of only the result set, once the last row has been read.
+     */
+    void closeWhenExhausted(StreamingQuery query) {
+        this.query = query;
+    }
+
+    private void readPage() throws SQLException {
+        while (page.size() < pageSize && next()) {
+            page.add(getEntity(resultSet));
+        }
+        if (parentFetcher != null) {
+            parentFetcher.fetch();
+        }
     }
 
     private boolean next() throws SQLException {
@@ -54,17 +85,23 @@ public class OrmSpliterator<T> implements Spliterator<T> {
     public boolean tryAdvance(Consumer<? super T> action) {
         counter++;
         try {
-            if (next()) {
-                action.accept(getEntity(resultSet));
+            if (page.isEmpty() && !resultSet.isClosed()) {
+                readPage();
+            }
+            if (!page.isEmpty()) {
+                action.accept(page.poll());
                 return true;
-            } else {
+            } else if (query != null) {
+                query.close();
+            } else if (!resultSet.isClosed()) {
                 resultSet.close();
                 LOGGER.info("ResultSet closed");
             }
         } catch (SQLException e) {
-            LOGGER.warn(e.getMessage());
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
+            if (query != null) {
+                query.close();
+            }
+            throw new OrmQueryException("Could not read " + cls.getSimpleName() + " rows", e);
         }
         return false;
     }
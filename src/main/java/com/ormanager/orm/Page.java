@@ -0,0 +1,46 @@
+package com.ormanager.orm;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One page of a keyset pagination from {@link OrmManager#findPage}. Besides the entities it keeps the position of
+ * its last row, the id and, when sorted, the value of the sort column, from which {@link OrmManager#nextPage}
+ * continues.
+ */
+@Getter
+public final class Page<T> {
+    private final Class<T> entityClass;
+    private final List<T> content;
+    private final int limit;
+    /**
+     * Column the rows are ordered by before the id, {@code null} when they are ordered by id only.
+     */
+    private final String sortColumn;
+    private final Object lastSortValue;
+    private final Serializable lastId;
+    @Getter(AccessLevel.NONE)
+    private final boolean hasNext;
+
+    Page(Class<T> entityClass, List<T> content, int limit, String sortColumn, Object lastSortValue,
+         Serializable lastId, boolean hasNext) {
+        this.entityClass = entityClass;
+        this.content = List.copyOf(content);
+        this.limit = limit;
+        this.sortColumn = sortColumn;
+        this.lastSortValue = lastSortValue;
+        this.lastId = lastId;
+        this.hasNext = hasNext;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
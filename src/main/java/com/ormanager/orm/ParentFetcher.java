@@ -0,0 +1,91 @@
+package com.ormanager.orm;
+
+import com.ormanager.orm.metadata.RelationshipMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.ormanager.orm.OrmManagerUtil.readForeignKey;
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Resolves the {@code @ManyToOne} parents of a page of children together. Foreign keys are collected with
+ * {@link #add} while the rows are read; {@link #fetch()} then takes the parents found in the {@link Cache}, loads
+ * the others with IN queries of the relationship's {@code fetchBatchSize} and sets them on the children.
+ */
+@Slf4j(topic = "ParentFetcher")
+class ParentFetcher {
+    @FunctionalInterface
+    interface Loader {
+        Map<Serializable, ?> loadAll(Class<?> entityClass, List<Serializable> ids, int batchSize) throws SQLException;
+    }
+
+    private record PendingParent(Object child, RelationshipMetadata relationship, Serializable parentId) {
+    }
+
+    private final Loader loader;
+    private final Cache ormCache;
+    private final int defaultBatchSize;
+    private final List<PendingParent> pending = new ArrayList<>();
+
+    ParentFetcher(Loader loader, Cache ormCache, int defaultBatchSize) {
+        this.loader = loader;
+        this.ormCache = ormCache;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Records the foreign keys of a child mapped from the current row of a SELECT built by its metadata.
+     */
+    void add(Object child, ResultSet resultSet) throws SQLException {
+        var metadata = getMetadata(child.getClass());
+
+        for (var relationship : metadata.getManyToOneRelationships()) {
+            var foreignKeyIndex = metadata.getSelectIndex(relationship.getColumnName());
+            var parentId = readForeignKey(resultSet, foreignKeyIndex, relationship.getTargetClass());
+
+            if (parentId != null) {
+                pending.add(new PendingParent(child, relationship, parentId));
+            }
+        }
+    }
+
+    void fetch() throws SQLException {
+        var byRelationship = pending.stream()
+                .collect(Collectors.groupingBy(PendingParent::relationship, LinkedHashMap::new, Collectors.toList()));
+        pending.clear();
+
+        for (var entry : byRelationship.entrySet()) {
+            var relationship = entry.getKey();
+            var parents = new HashMap<Serializable, Object>();
+            var missingIds = new ArrayList<Serializable>();
+
+            for (var parentId : new LinkedHashSet<>(entry.getValue().stream().map(PendingParent::parentId).toList())) {
+                ormCache.getFromCache(parentId, relationship.getTargetClass())
+                        .ifPresentOrElse(parent -> parents.put(parentId, parent), () -> missingIds.add(parentId));
+            }
+            if (!missingIds.isEmpty()) {
+                var batchSize = relationship.getFetchBatchSize() > 0 ? relationship.getFetchBatchSize() : defaultBatchSize;
+                parents.putAll(loader.loadAll(relationship.getTargetClass(), missingIds, batchSize));
+            }
+
+            for (var pendingParent : entry.getValue()) {
+                var parent = parents.get(pendingParent.parentId());
+
+                if (parent != null) {
+                    relationship.getAccessor().set(pendingParent.child(), parent);
+                }
+            }
+            LOGGER.info("{} parents for {} children: {} from cache, {} loaded from DB", relationship,
+                    entry.getValue().size(), parents.size() - missingIds.size(), missingIds.size());
+        }
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+}
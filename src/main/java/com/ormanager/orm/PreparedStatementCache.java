@@ -0,0 +1,121 @@
+package com.ormanager.orm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU-bounded pool of {@link PreparedStatement}s prepared on one connection, keyed by SQL text and the
+ * generated-keys flag. A statement handed out again has its parameters cleared; evicted statements are closed.
+ * <p>
+ * Statements are shared, so callers must not close them, and must bind, execute and read them while holding the
+ * lock of the {@link OrmManager} that owns the cache, whose methods using it are synchronized. Result sets must be
+ * consumed before the same SQL is prepared again. Open-ended readers such as streams prepare their own statements.
+ */
+@Slf4j(topic = "PreparedStatementCache")
+public class PreparedStatementCache implements AutoCloseable {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private record Key(String sql, boolean returnGeneratedKeys) {
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Map<Key, PreparedStatement> statements;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private boolean closed;
+
+    public PreparedStatementCache(Connection connection) {
+        this(connection, DEFAULT_MAX_SIZE);
+    }
+
+    public PreparedStatementCache(Connection connection, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be positive, was " + maxSize);
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= PreparedStatementCache.this.maxSize) {
+                    return false;
+                }
+                evictions++;
+                closeQuietly(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, false);
+    }
+
+    public synchronized PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement cache is closed");
+        }
+        var key = new Key(sql, returnGeneratedKeys);
+        var statement = statements.get(key);
+
+        if (statement != null && !statement.isClosed()) {
+            hits++;
+            statement.clearParameters();
+            return statement;
+        }
+
+        misses++;
+        statement = returnGeneratedKeys ?
+                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) : connection.prepareStatement(sql);
+        statements.put(key, statement);
+        return statement;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Closes every cached statement. A failure to close one statement is logged and does not stop the others.
+     */
+    @Override
+    public synchronized void close() {
+        statements.forEach(PreparedStatementCache::closeQuietly);
+        statements.clear();
+        closed = true;
+
+        LOGGER.info("Statement cache closed (hits = {}, misses = {}, evictions = {})", hits, misses, evictions);
+    }
+
+    private static void closeQuietly(Key key, PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Could not close statement {}: {}", key.sql(), e.getMessage());
+        }
+    }
+}
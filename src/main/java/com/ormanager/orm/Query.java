@@ -0,0 +1,198 @@
+package com.ormanager.orm;
+
+import com.ormanager.orm.annotation.Entity;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.metadata.EntityMetadata;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ormanager.orm.OrmManagerUtil.paddedSize;
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Criteria query on one entity, created by {@link OrmManager#query(Class)}. Conditions are joined with AND and
+ * compiled into one parameterized SELECT on the entity's column names, so the database filters, orders and limits
+ * the rows. The SQL is cached per query shape (columns, operators, ordering) and the values are bound as parameters.
+ * <pre>{@code
+ * List<Book> books = ormManager.query(Book.class).where("published_at", GT, date).orderBy("title").limit(10).list();
+ * }</pre>
+ * Columns can be given by column or field name; a {@code @ManyToOne} can be compared with a parent entity.
+ */
+public final class Query<T> {
+    public enum Operator {
+        EQ("="),
+        NE("<>"),
+        GT(">"),
+        GE(">="),
+        LT("<"),
+        LE("<="),
+        LIKE("LIKE"),
+        /**
+         * Value is a non-empty collection. Lists are padded to a power of two so only a few shapes are compiled.
+         */
+        IN("IN"),
+        IS_NULL("IS NULL"),
+        IS_NOT_NULL("IS NOT NULL");
+
+        private final String sql;
+
+        Operator(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private record Condition(String column, Operator operator, List<Object> values) {
+    }
+
+    private record Order(String column, boolean descending) {
+    }
+
+    private static final int MAX_IN_VALUES = 1_024;
+
+    private final OrmManager ormManager;
+    private final Class<T> entityClass;
+    private final EntityMetadata<T> metadata;
+    private final List<Condition> conditions = new ArrayList<>();
+    private final List<Order> orders = new ArrayList<>();
+    private int limit;
+
+    Query(OrmManager ormManager, Class<T> entityClass) {
+        this.ormManager = ormManager;
+        this.entityClass = entityClass;
+        this.metadata = getMetadata(entityClass);
+    }
+
+    /**
+     * @throws OrmFieldTypeException    when the entity has no such column
+     * @throws IllegalArgumentException for a null value (use {@link Operator#IS_NULL}) or an empty IN collection
+     */
+    public Query<T> where(String column, Operator operator, Object value) {
+        var columnName = resolveColumn(column);
+
+        switch (operator) {
+            case IS_NULL, IS_NOT_NULL -> conditions.add(new Condition(columnName, operator, List.of()));
+            case IN -> {
+                if (!(value instanceof Collection<?> values) || values.isEmpty() || values.size() > MAX_IN_VALUES) {
+                    throw new IllegalArgumentException("IN on " + column + " needs 1 to " + MAX_IN_VALUES + " values, was " + value);
+                }
+                var bound = values.stream().map(Query::toParameter).toList();
+                var padded = new ArrayList<Object>(bound);
+                while (padded.size() < paddedSize(bound.size(), MAX_IN_VALUES)) {
+                    padded.add(bound.get(bound.size() - 1));
+                }
+                conditions.add(new Condition(columnName, operator, padded));
+            }
+            default -> {
+                if (value == null) {
+                    throw new IllegalArgumentException("Compare " + column + " with null using IS_NULL or IS_NOT_NULL");
+                }
+                conditions.add(new Condition(columnName, operator, List.of(toParameter(value))));
+            }
+        }
+        return this;
+    }
+
+    public Query<T> where(String column, Operator operator) {
+        return where(column, operator, null);
+    }
+
+    public Query<T> orderBy(String column) {
+        orders.add(new Order(resolveColumn(column), false));
+        return this;
+    }
+
+    public Query<T> orderByDescending(String column) {
+        orders.add(new Order(resolveColumn(column), true));
+        return this;
+    }
+
+    public Query<T> limit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Query limit must be positive, was " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public List<T> list() {
+        return ormManager.findAll(this);
+    }
+
+    public Stream<T> stream() throws SQLException {
+        return ormManager.findAllAsStream(this);
+    }
+
+    public IterableORM<T> iterable() throws SQLException {
+        return ormManager.findAllAsIterable(this);
+    }
+
+    Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Everything the SQL depends on, values excluded.
+     */
+    String getShape() {
+        return conditions.stream()
+                .map(condition -> condition.column() + " " + condition.operator() + " " + condition.values().size())
+                .collect(Collectors.joining(",", "WHERE ", ""))
+                + orders.stream()
+                .map(order -> order.column() + (order.descending() ? " DESC" : ""))
+                .collect(Collectors.joining(",", " ORDER BY ", ""))
+                + (limit > 0 ? " LIMIT" : "");
+    }
+
+    String toSql() {
+        var sql = new StringBuilder(metadata.getSelectAllSql());
+
+        if (!conditions.isEmpty()) {
+            sql.append(conditions.stream().map(Query::toSql).collect(Collectors.joining(" AND ", " WHERE ", "")));
+        }
+        if (!orders.isEmpty()) {
+            sql.append(orders.stream()
+                    .map(order -> order.column() + (order.descending() ? " DESC" : ""))
+                    .collect(Collectors.joining(", ", " ORDER BY ", "")));
+        }
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    Object[] getParameters() {
+        var parameters = new ArrayList<>();
+
+        conditions.forEach(condition -> parameters.addAll(condition.values()));
+        if (limit > 0) {
+            parameters.add(limit);
+        }
+        return parameters.toArray();
+    }
+
+    private static String toSql(Condition condition) {
+        return switch (condition.operator()) {
+            case IS_NULL, IS_NOT_NULL -> condition.column() + " " + condition.operator().sql;
+            case IN -> condition.column() + " IN ("
+                    + String.join(", ", Collections.nCopies(condition.values().size(), "?")) + ")";
+            default -> condition.column() + " " + condition.operator().sql + " ?";
+        };
+    }
+
+    private String resolveColumn(String column) {
+        return metadata.resolveColumnName(column);
+    }
+
+    /**
+     * Entities are compared by id, UUIDs as text like everywhere else in the manager.
+     */
+    private static Object toParameter(Object value) {
+        if (value != null && value.getClass().isAnnotationPresent(Entity.class)) {
+            value = getMetadata(value.getClass()).getId(value);
+        }
+        return value instanceof UUID uuid ? uuid.toString() : value;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ormanager.orm;
+
+import com.ormanager.orm.dialect.MySqlDialect;
+import com.ormanager.orm.dialect.SqlDialect;
+import com.ormanager.orm.mapper.GeneratedMapper;
+import com.ormanager.orm.mapper.GeneratedMappers;
+import com.ormanager.orm.metadata.RelationshipMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * SQL text per entity class and operation, built on first use and reused for the lifetime of an
+ * {@link OrmManager}. Handing out the same string every time also lets the driver's statement cache match it.
+ */
+@Slf4j(topic = "SqlTemplateCache")
+public class SqlTemplateCache {
+    public enum Operation {
+        INSERT,
+        UPDATE_BY_ID,
+        /**
+         * UPDATE of some columns only, one template per mask of {@code EntityMetadata#getUpdateColumns()}.
+         */
+        UPDATE_COLUMNS_BY_ID,
+        SELECT_ALL,
+        SELECT_BY_ID,
+        /**
+         * SELECT with an IN list, one template per number of ids.
+         */
+        SELECT_BY_IDS,
+        COUNT_BY_ID,
+        DELETE_BY_ID,
+        /**
+         * DELETE with an IN list, one template per number of ids.
+         */
+        DELETE_BY_IDS,
+        /**
+         * Multi-row insert-or-update from the {@link SqlDialect}, one template per number of rows.
+         */
+        UPSERT,
+        /**
+         * Children of one parent, filtered by the foreign key pointing at the related (parent) class.
+         */
+        SELECT_BY_PARENT,
+        /**
+         * Number of children of one parent, filtered like {@link #SELECT_BY_PARENT}.
+         */
+        COUNT_BY_PARENT,
+        /**
+         * Lowest id, highest id and number of rows of the table.
+         */
+        ID_RANGE,
+        /**
+         * Rows with an id between two bounds, both included, ordered by id.
+         */
+        SELECT_BY_ID_RANGE,
+        COUNT_BY_ID_RANGE,
+        /**
+         * First keyset page with a LIMIT parameter, ordered by id or, for a variant above 0, by the column at that
+         * position of {@code EntityMetadata#getSelectColumns()} and then by id.
+         */
+        SELECT_FIRST_PAGE,
+        /**
+         * Keyset page after a given row, ordered like {@link #SELECT_FIRST_PAGE}.
+         */
+        SELECT_PAGE_AFTER,
+        /**
+         * SELECT of a criteria {@link Query}, one template per query shape.
+         */
+        QUERY
+    }
+
+    /**
+     * @param variant number of rows or ids, or column mask, for the operations whose SQL depends on it
+     * @param shape   shape of a {@link Operation#QUERY}, empty for the other operations
+     */
+    private record Key(Class<?> entityClass, Operation operation, Class<?> relatedClass, int variant, String shape) {
+    }
+
+    private static final class Template {
+        private final String sql;
+        private final LongAdder hits = new LongAdder();
+
+        private Template(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final Map<Key, Template> templates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile SqlDialect dialect = new MySqlDialect();
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Replaces the dialect and drops the templates it built.
+     */
+    public void setDialect(SqlDialect dialect) {
+        this.dialect = dialect;
+        templates.keySet().removeIf(key -> key.operation() == Operation.UPSERT);
+    }
+
+    public String get(Class<?> entityClass, Operation operation) {
+        return get(entityClass, operation, null);
+    }
+
+    public String get(Class<?> entityClass, Operation operation, Class<?> relatedClass) {
+        return get(new Key(entityClass, operation, relatedClass, 0, ""), this::build);
+    }
+
+    public String get(Class<?> entityClass, Operation operation, int variant) {
+        return get(new Key(entityClass, operation, null, variant, ""), this::build);
+    }
+
+    public String get(Query<?> query) {
+        return get(new Key(query.getEntityClass(), Operation.QUERY, null, 0, query.getShape()), key -> query.toSql());
+    }
+
+    private String get(Key key, Function<Key, String> builder) {
+        var template = templates.get(key);
+
+        if (template == null) {
+            misses.increment();
+            template = templates.computeIfAbsent(key, k -> new Template(builder.apply(k)));
+        } else {
+            hits.increment();
+            template.hits.increment();
+        }
+        return template.sql;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getHitCount(Class<?> entityClass, Operation operation) {
+        return templates.entrySet().stream()
+                .filter(entry -> entry.getKey().entityClass() == entityClass && entry.getKey().operation() == operation)
+                .mapToLong(entry -> entry.getValue().hits.sum())
+                .sum();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private String build(Key key) {
+        var metadata = getMetadata(key.entityClass());
+
+        var sql = switch (key.operation()) {
+            case INSERT -> GeneratedMappers.find(key.entityClass())
+                    .map(GeneratedMapper::getInsertSql)
+                    .orElse(metadata.getInsertSql());
+            case UPDATE_BY_ID -> GeneratedMappers.find(key.entityClass())
+                    .map(GeneratedMapper::getUpdateSql)
+                    .orElse(metadata.getUpdateByIdSql());
+            case SELECT_ALL -> metadata.getSelectAllSql();
+            case SELECT_BY_ID -> metadata.getSelectByIdSql();
+            case SELECT_BY_IDS -> metadata.getSelectByIdsSql(key.variant());
+            case COUNT_BY_ID -> metadata.getCountByIdSql();
+            case DELETE_BY_ID -> metadata.getDeleteByIdSql();
+            case UPDATE_COLUMNS_BY_ID -> metadata.getUpdateByIdSql(key.variant());
+            case DELETE_BY_IDS -> metadata.getDeleteByIdsSql(key.variant());
+            case UPSERT -> dialect.getUpsertSql(metadata, key.variant());
+            case SELECT_BY_PARENT -> metadata.getSelectAllSql() + " WHERE " + foreignKeyColumn(key) + " = ?";
+            case COUNT_BY_PARENT -> "SELECT count(*) FROM " + metadata.getTableName() + " WHERE " + foreignKeyColumn(key) + " = ?";
+            case ID_RANGE -> "SELECT min(" + metadata.getIdColumnName() + "), max(" + metadata.getIdColumnName()
+                    + "), count(*) FROM " + metadata.getTableName();
+            case SELECT_BY_ID_RANGE -> metadata.getSelectAllSql() + " WHERE " + metadata.getIdColumnName()
+                    + " BETWEEN ? AND ? ORDER BY " + metadata.getIdColumnName();
+            case COUNT_BY_ID_RANGE -> "SELECT count(*) FROM " + metadata.getTableName() + " WHERE "
+                    + metadata.getIdColumnName() + " BETWEEN ? AND ?";
+            case SELECT_FIRST_PAGE -> metadata.getSelectAllSql() + pageOrder(key);
+            case SELECT_PAGE_AFTER -> metadata.getSelectAllSql() + " WHERE " + pageStart(key) + pageOrder(key);
+            case QUERY -> throw new IllegalStateException("Query templates are built by the query");
+        };
+
+        LOGGER.debug("{} template for {}: {}", key.operation(), key.entityClass().getSimpleName(), sql);
+        return sql;
+    }
+
+    private static String pageStart(Key key) {
+        var idColumnName = getMetadata(key.entityClass()).getIdColumnName();
+
+        if (key.variant() == 0) {
+            return idColumnName + " > ?";
+        }
+        var sortColumn = getMetadata(key.entityClass()).getSelectColumns().get(key.variant() - 1);
+        return sortColumn + " > ? OR (" + sortColumn + " = ? AND " + idColumnName + " > ?)";
+    }
+
+    private static String pageOrder(Key key) {
+        var idColumnName = getMetadata(key.entityClass()).getIdColumnName();
+        var sortColumns = key.variant() == 0 ? idColumnName :
+                getMetadata(key.entityClass()).getSelectColumns().get(key.variant() - 1) + ", " + idColumnName;
+
+        return " ORDER BY " + sortColumns + " LIMIT ?";
+    }
+
+    private static String foreignKeyColumn(Key key) {
+        var parentClass = key.relatedClass();
+
+        return getMetadata(key.entityClass()).getManyToOneRelationships().stream()
+                .filter(relationship -> relationship.getTargetClass() == parentClass)
+                .map(RelationshipMetadata::getColumnName)
+                .findFirst()
+                .orElse(parentClass.getSimpleName().toLowerCase() + "_id");
+    }
+}
@@ -0,0 +1,79 @@
+package com.ormanager.orm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Open SELECT of a stream or iterable: its result set, statement and, when the query has a connection of its own,
+ * that connection. {@link #close()} releases all of them once and can be called again safely.
+ */
+@Slf4j(topic = "StreamingQuery")
+final class StreamingQuery implements AutoCloseable {
+    private final Connection dedicatedConnection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private boolean closed;
+
+    private StreamingQuery(Connection dedicatedConnection, PreparedStatement statement, ResultSet resultSet) {
+        this.dedicatedConnection = dedicatedConnection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * Runs {@code sql} as a forward-only, read-only query with the given fetch size and parameters.
+     *
+     * @param dedicated whether the connection belongs to this query and is closed with it
+     */
+    static StreamingQuery open(Connection connection, boolean dedicated, String sql, int fetchSize,
+                               Object... parameters) throws SQLException {
+        PreparedStatement statement = null;
+
+        try {
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return new StreamingQuery(dedicated ? connection : null, statement, statement.executeQuery());
+        } catch (SQLException e) {
+            new StreamingQuery(dedicated ? connection : null, statement, null).close();
+            throw e;
+        }
+    }
+
+    ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        closeQuietly(dedicatedConnection);
+        LOGGER.info("ResultSet closed");
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            LOGGER.warn("Could not close {}: {}", resource.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
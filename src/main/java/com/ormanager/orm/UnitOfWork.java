@@ -0,0 +1,225 @@
+package com.ormanager.orm;
+
+import com.ormanager.orm.metadata.RelationshipMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Records new, dirty and removed entities in memory and writes them in one transaction. {@link #flush()} sends the
+ * pending work in batches: inserts and updates with referenced ({@code @ManyToOne}) classes first, then deletes
+ * with referencing classes first. {@link #commit()} flushes and commits; {@link #close()} rolls back whatever was
+ * not committed.
+ * <p>
+ * Obtained from {@link OrmManager#beginUnitOfWork()}. It uses the manager's connection, so only one unit of work
+ * can be open per manager.
+ */
+@Slf4j(topic = "UnitOfWork")
+public class UnitOfWork implements AutoCloseable {
+    private final OrmManager ormManager;
+    private final Connection connection;
+    private final boolean previousAutoCommit;
+    private final Entities newEntities = new Entities();
+    private final Entities dirtyEntities = new Entities();
+    private final Entities removedEntities = new Entities();
+    private boolean flushed;
+    private boolean active = true;
+
+    UnitOfWork(OrmManager ormManager, Connection connection) throws SQLException {
+        this.ormManager = ormManager;
+        this.connection = connection;
+        this.previousAutoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Entity to insert. Entities inserted by the cascade of a parent registered before it are not inserted again.
+     */
+    public void registerNew(Object entity) {
+        checkActive();
+        if (!removedEntities.remove(entity)) {
+            newEntities.add(entity);
+        }
+    }
+
+    /**
+     * Entity to save at flush, through the update (or upsert) path of {@link OrmManager#saveAll}.
+     */
+    public void registerDirty(Object entity) {
+        checkActive();
+        if (!newEntities.contains(entity) && !removedEntities.contains(entity)) {
+            dirtyEntities.add(entity);
+        }
+    }
+
+    public void registerRemoved(Object entity) {
+        checkActive();
+        if (newEntities.remove(entity)) {
+            return;
+        }
+        dirtyEntities.remove(entity);
+        removedEntities.add(entity);
+    }
+
+    public boolean hasPendingChanges() {
+        return !newEntities.isEmpty() || !dirtyEntities.isEmpty() || !removedEntities.isEmpty();
+    }
+
+    /**
+     * Writes the pending changes inside the transaction without committing it.
+     */
+    public void flush() throws SQLException {
+        checkActive();
+        if (!hasPendingChanges()) {
+            return;
+        }
+        flushed = true;
+
+        for (var entry : byDependencyOrder(newEntities.drain()).entrySet()) {
+            var notInserted = entry.getValue().stream()
+                    .filter(entity -> !isInsertedByCascade(entity))
+                    .toList();
+            ormManager.insertInBatches(entry.getKey(), notInserted);
+        }
+
+        for (var entities : byDependencyOrder(dirtyEntities.drain()).values()) {
+            ormManager.saveInBatches(entities);
+        }
+
+        var removedByClass = new ArrayList<>(byDependencyOrder(removedEntities.drain()).entrySet());
+        Collections.reverse(removedByClass);
+
+        for (var entry : removedByClass) {
+            ormManager.deleteAll(entry.getValue());
+        }
+    }
+
+    public void commit() throws SQLException {
+        flush();
+        connection.commit();
+        LOGGER.info("Unit of work committed.");
+        end();
+    }
+
+    /**
+     * Rolls back the transaction and drops the pending changes. If anything was flushed the entity cache is
+     * cleared, since it may hold rows that no longer exist.
+     */
+    public void rollback() throws SQLException {
+        checkActive();
+        newEntities.drain();
+        dirtyEntities.drain();
+        removedEntities.drain();
+        connection.rollback();
+
+        if (flushed) {
+            ormManager.getOrmCache().clearCache();
+        }
+        LOGGER.info("Unit of work rolled back.");
+        end();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (active) {
+            rollback();
+        }
+    }
+
+    private void end() throws SQLException {
+        active = false;
+        connection.setAutoCommit(previousAutoCommit);
+        ormManager.endUnitOfWork(this);
+    }
+
+    private void checkActive() {
+        if (!active) {
+            throw new IllegalStateException("Unit of work is already committed or rolled back");
+        }
+    }
+
+    private boolean isInsertedByCascade(Object entity) {
+        var id = OrmManagerUtil.getId(entity);
+
+        return id != null && ormManager.getOrmCache().isRecordInCache(id, entity.getClass());
+    }
+
+    /**
+     * Groups entities by class, classes ordered so that every class comes after the classes it references.
+     */
+    private static Map<Class<?>, List<Object>> byDependencyOrder(List<Object> entities) {
+        var depths = new HashMap<Class<?>, Integer>();
+        var byClass = entities.stream()
+                .collect(Collectors.groupingBy(Object::getClass, LinkedHashMap::new, Collectors.toList()));
+
+        return byClass.entrySet().stream()
+                .sorted(Comparator.comparingInt(entry -> dependencyDepth(entry.getKey(), depths, new HashSet<>())))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private static int dependencyDepth(Class<?> entityClass, Map<Class<?>, Integer> depths, Set<Class<?>> visiting) {
+        var known = depths.get(entityClass);
+
+        if (known != null) {
+            return known;
+        }
+        if (!visiting.add(entityClass)) {
+            return 0;
+        }
+        var depth = getMetadata(entityClass).getManyToOneRelationships().stream()
+                .map(RelationshipMetadata::getTargetClass)
+                .filter(target -> target != entityClass)
+                .mapToInt(target -> dependencyDepth(target, depths, visiting) + 1)
+                .max()
+                .orElse(0);
+
+        depths.put(entityClass, depth);
+        return depth;
+    }
+
+    /**
+     * Registration order with identity semantics, so entities with overridden equals are still told apart.
+     */
+    private static final class Entities {
+        private final Map<Object, Boolean> registered = new IdentityHashMap<>();
+        private final List<Object> order = new ArrayList<>();
+
+        void add(Object entity) {
+            if (registered.put(entity, Boolean.TRUE) == null) {
+                order.add(entity);
+            }
+        }
+
+        boolean remove(Object entity) {
+            if (registered.remove(entity) == null) {
+                return false;
+            }
+            order.removeIf(registeredEntity -> registeredEntity == entity);
+            return true;
+        }
+
+        boolean contains(Object entity) {
+            return registered.containsKey(entity);
+        }
+
+        boolean isEmpty() {
+            return order.isEmpty();
+        }
+
+        List<Object> drain() {
+            var entities = List.copyOf(order);
+            order.clear();
+            registered.clear();
+            return entities;
+        }
+    }
+}
@@ -9,4 +9,10 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD, ElementType.FIELD})
 public @interface ManyToOne {
     String columnName() default "";
+
+    /**
+     * Number of parents loaded by one IN query when the parents of many children are fetched together; 0 uses the
+     * batch size of the {@code OrmManager}.
+     */
+    int fetchBatchSize() default 0;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.ormanager.orm.dialect;
+
+import com.ormanager.orm.metadata.ColumnMetadata;
+import com.ormanager.orm.metadata.EntityMetadata;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL and MariaDB: multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE}. A foreign key bound as NULL keeps its
+ * current value, the same way as the UPDATE built by {@link EntityMetadata}.
+ */
+public class MySqlDialect implements SqlDialect {
+
+    /**
+     * {@code Integer.MIN_VALUE} makes Connector/J stream a forward-only, read-only result set row by row. The
+     * connection cannot run other statements until that result set is closed.
+     */
+    @Override
+    public int getStreamingFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public String getUpsertSql(EntityMetadata<?> metadata, int rowCount) {
+        var columns = metadata.getUpsertColumns();
+        var row = "(" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+        var assignments = columns.stream()
+                .filter(column -> !column.isId())
+                .map(MySqlDialect::assignment)
+                .collect(Collectors.joining(", "));
+
+        if (assignments.isEmpty()) {
+            var idColumnName = metadata.getIdColumn().getName();
+            assignments = idColumnName + " = " + idColumnName;
+        }
+
+        return "INSERT INTO " + metadata.getTableName() + "("
+                + columns.stream().map(ColumnMetadata::getName).collect(Collectors.joining(","))
+                + ") VALUES " + String.join(", ", Collections.nCopies(rowCount, row))
+                + " ON DUPLICATE KEY UPDATE " + assignments;
+    }
+
+    private static String assignment(ColumnMetadata column) {
+        var name = column.getName();
+
+        return column.isManyToOne() ?
+                name + " = COALESCE(VALUES(" + name + "), " + name + ")" : name + " = VALUES(" + name + ")";
+    }
+}
@@ -0,0 +1,31 @@
+package com.ormanager.orm.dialect;
+
+import com.ormanager.orm.metadata.EntityMetadata;
+
+/**
+ * Database specific SQL and driver settings used by {@link com.ormanager.orm.OrmManager}.
+ */
+public interface SqlDialect {
+
+    /**
+     * Whether {@link #getUpsertSql} is available. Without it existing entities are updated and the ones that were
+     * not found are inserted.
+     */
+    default boolean supportsUpsert() {
+        return true;
+    }
+
+    /**
+     * Statement inserting {@code rowCount} rows that updates a row whose id is already taken instead of failing.
+     * Parameters are bound row by row, each row in the order of {@link EntityMetadata#getUpsertColumns()}.
+     */
+    String getUpsertSql(EntityMetadata<?> metadata, int rowCount);
+
+    /**
+     * Fetch size of the statements behind {@code findAllAsStream} and {@code findAllAsIterable}, so that rows are
+     * read from the server as they are consumed instead of all at once.
+     */
+    default int getStreamingFetchSize() {
+        return 1_000;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ormanager.orm.exception;
+
+import java.sql.SQLException;
+
+/**
+ * SQL failure while reading rows through an API that cannot throw {@link SQLException}, such as a stream.
+ */
+public class OrmQueryException extends RuntimeException {
+
+    public OrmQueryException(String message, SQLException cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,166 @@
+package com.ormanager.orm.mapper;
+
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.metadata.ColumnMetadata;
+import com.ormanager.orm.metadata.EntityMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Optional per-entity mapper for entities without a mapper generated at build time, prepared once and reused for
+ * every row. It does not generate code: the no-args constructor is called through a supplier spun by
+ * {@link LambdaMetafactory}, and each column has a reader lambda, chosen by the column type when the mapper is built,
+ * that sets the field through the column's {@code PropertyAccessor}. Primitive fields are set without boxing;
+ * wrapper, text and date fields are set as objects.
+ * Rows of the SELECTs built by {@link EntityMetadata} are read through {@link #projection()}, whose column indexes
+ * are known up front; {@link #bind(ResultSet)} resolves them once for any other result set.
+ */
+@Slf4j(topic = "CompiledRowMapper")
+public final class CompiledRowMapper<T> {
+    private static final Map<Class<?>, CompiledRowMapper<?>> COMPILED = new ConcurrentHashMap<>();
+
+    private final EntityMetadata<T> metadata;
+    private final Supplier<T> constructor;
+    private final List<ColumnMetadata> columns;
+    private final ColumnReader[] readers;
+    private final RowMapper<T> projection;
+
+    private CompiledRowMapper(Class<T> entityClass) {
+        this.metadata = getMetadata(entityClass);
+        this.constructor = spinConstructor(entityClass);
+
+        var mappedColumns = new ArrayList<ColumnMetadata>();
+        var columnReaders = new ArrayList<ColumnReader>();
+
+        for (var column : metadata.getColumns()) {
+            var reader = readerFor(column);
+            if (reader != null) {
+                mappedColumns.add(column);
+                columnReaders.add(reader);
+            }
+        }
+        this.columns = List.copyOf(mappedColumns);
+        this.readers = columnReaders.toArray(new ColumnReader[0]);
+        this.projection = new BoundRowMapper(
+                columns.stream().mapToInt(column -> metadata.getSelectIndex(column.getName())).toArray(),
+                metadata.getSelectIndex(metadata.getIdColumnName()));
+
+        LOGGER.info("Row mapper compiled for {} with {} columns.", entityClass.getSimpleName(), readers.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledRowMapper<T> forEntity(Class<T> entityClass) {
+        return (CompiledRowMapper<T>) COMPILED.computeIfAbsent(entityClass, CompiledRowMapper::new);
+    }
+
+    /**
+     * Mapper for result sets of the entity's own SELECTs, which list {@link EntityMetadata#getSelectColumns()}.
+     */
+    public RowMapper<T> projection() {
+        return projection;
+    }
+
+    public RowMapper<T> bind(ResultSet resultSet) throws SQLException {
+        var indexes = new int[columns.size()];
+
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = resultSet.findColumn(columns.get(i).getName());
+        }
+        return new BoundRowMapper(indexes, resultSet.findColumn(metadata.getIdColumnName()));
+    }
+
+    private final class BoundRowMapper implements RowMapper<T> {
+        private final int[] indexes;
+        private final int idIndex;
+
+        private BoundRowMapper(int[] indexes, int idIndex) {
+            this.indexes = indexes;
+            this.idIndex = idIndex;
+        }
+
+        @Override
+        public T mapRow(ResultSet resultSet) throws SQLException {
+            T entity = constructor.get();
+
+            for (int i = 0; i < readers.length; i++) {
+                readers[i].read(resultSet, indexes[i], entity);
+            }
+            return entity;
+        }
+
+        @Override
+        public Serializable readId(ResultSet resultSet) throws SQLException {
+            return metadata.isNumericId() ? resultSet.getLong(idIndex) : UUID.fromString(resultSet.getString(idIndex));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        void read(ResultSet resultSet, int index, Object entity) throws SQLException;
+    }
+
+    private static ColumnReader readerFor(ColumnMetadata column) {
+        var accessor = column.getAccessor();
+        var type = column.getType();
+
+        if (type == Integer.class) {
+            return (resultSet, index, entity) -> accessor.set(entity, resultSet.getInt(index));
+        } else if (type == int.class) {
+            return (resultSet, index, entity) -> accessor.setInt(entity, resultSet.getInt(index));
+        } else if (type == Long.class) {
+            return (resultSet, index, entity) -> accessor.set(entity, resultSet.getLong(index));
+        } else if (type == long.class) {
+            return (resultSet, index, entity) -> accessor.setLong(entity, resultSet.getLong(index));
+        } else if (type == double.class) {
+            return (resultSet, index, entity) -> accessor.setDouble(entity, resultSet.getDouble(index));
+        } else if (type == boolean.class) {
+            return (resultSet, index, entity) -> accessor.setBoolean(entity, resultSet.getBoolean(index));
+        } else if (type == String.class) {
+            return (resultSet, index, entity) -> accessor.set(entity, resultSet.getString(index));
+        } else if (type == LocalDate.class) {
+            return (resultSet, index, entity) -> {
+                Date date = resultSet.getDate(index);
+                accessor.set(entity, date == null ? null : date.toLocalDate());
+            };
+        } else if (type == UUID.class) {
+            return (resultSet, index, entity) -> {
+                String uuid = resultSet.getString(index);
+                accessor.set(entity, uuid == null ? null : UUID.fromString(uuid));
+            };
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> spinConstructor(Class<T> entityClass) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+            var constructor = lookup.findConstructor(entityClass, MethodType.methodType(void.class));
+            var callSite = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(entityClass));
+
+            return (Supplier<T>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new OrmFieldTypeException("Could not generate constructor for " + entityClass.getSimpleName(), e);
+        }
+    }
+}
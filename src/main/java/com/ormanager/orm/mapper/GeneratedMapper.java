@@ -0,0 +1,81 @@
+package com.ormanager.orm.mapper;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Binder and row mapper generated at compile time for one entity by
+ * {@code com.ormanager.orm.processor.EntityProcessor}. Looked up through {@link GeneratedMappers}.
+ */
+public interface GeneratedMapper<T> {
+
+    Class<T> getEntityClass();
+
+    String getIdColumnName();
+
+    /**
+     * Columns read by {@link #mapRow}, in the order of its {@code columnIndexes}.
+     */
+    List<String> getColumnNames();
+
+    /**
+     * INSERT statement whose parameters are bound by {@link #bindInsert}.
+     */
+    String getInsertSql();
+
+    /**
+     * UPDATE statement whose parameters are bound by {@link #bindUpdate}.
+     */
+    String getUpdateSql();
+
+    void bindInsert(Object entity, PreparedStatement statement) throws SQLException;
+
+    /**
+     * Binds the updated columns followed by the id.
+     */
+    void bindUpdate(Object entity, PreparedStatement statement) throws SQLException;
+
+    T mapRow(ResultSet resultSet, int[] columnIndexes) throws SQLException;
+
+    Serializable readId(ResultSet resultSet, int idIndex) throws SQLException;
+
+    /**
+     * Mapper for the entity's own SELECTs, which list {@link #getColumnNames()} first and in the same order.
+     */
+    default RowMapper<T> projection() {
+        var columnNames = getColumnNames();
+        var columnIndexes = new int[columnNames.size()];
+
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = i + 1;
+        }
+        return rowMapper(columnIndexes, columnNames.indexOf(getIdColumnName()) + 1);
+    }
+
+    default RowMapper<T> bind(ResultSet resultSet) throws SQLException {
+        var columnNames = getColumnNames();
+        var columnIndexes = new int[columnNames.size()];
+
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = resultSet.findColumn(columnNames.get(i));
+        }
+        return rowMapper(columnIndexes, resultSet.findColumn(getIdColumnName()));
+    }
+
+    private RowMapper<T> rowMapper(int[] columnIndexes, int idIndex) {
+        return new RowMapper<>() {
+            @Override
+            public T mapRow(ResultSet resultSet) throws SQLException {
+                return GeneratedMapper.this.mapRow(resultSet, columnIndexes);
+            }
+
+            @Override
+            public Serializable readId(ResultSet resultSet) throws SQLException {
+                return GeneratedMapper.this.readId(resultSet, idIndex);
+            }
+        };
+    }
+}
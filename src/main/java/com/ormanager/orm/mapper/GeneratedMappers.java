@@ -0,0 +1,43 @@
+package com.ormanager.orm.mapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the {@code <Entity>_OrmMapper} generated next to an entity class. The lookup result, including a missing
+ * mapper, is cached per class, so callers fall back to reflection without trying to load the class again.
+ */
+@Slf4j(topic = "GeneratedMappers")
+public final class GeneratedMappers {
+    public static final String MAPPER_SUFFIX = "_OrmMapper";
+
+    private static final Map<Class<?>, Optional<GeneratedMapper<?>>> MAPPERS = new ConcurrentHashMap<>();
+
+    private GeneratedMappers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<GeneratedMapper<T>> find(Class<T> entityClass) {
+        return (Optional<GeneratedMapper<T>>) (Optional<?>) MAPPERS.computeIfAbsent(entityClass, GeneratedMappers::load);
+    }
+
+    private static Optional<GeneratedMapper<?>> load(Class<?> entityClass) {
+        var mapperName = entityClass.getName() + MAPPER_SUFFIX;
+
+        try {
+            var mapperClass = Class.forName(mapperName, true, entityClass.getClassLoader());
+            var mapper = (GeneratedMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+
+            LOGGER.info("Using generated mapper {}", mapperName);
+            return Optional.of(mapper);
+        } catch (ClassNotFoundException e) {
+            LOGGER.debug("No generated mapper for {}, using reflection", entityClass.getSimpleName());
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            LOGGER.warn("Generated mapper {} could not be loaded, using reflection: {}", mapperName, e.toString());
+        }
+        return Optional.empty();
+    }
+}
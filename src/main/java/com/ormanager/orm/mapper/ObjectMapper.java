@@ -1,9 +1,9 @@
 package com.ormanager.orm.mapper;
 
-import com.ormanager.orm.annotation.Column;
+import com.ormanager.orm.metadata.ColumnMetadata;
+import com.ormanager.orm.metadata.PropertyAccessor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
 @Slf4j
 public class ObjectMapper {
     private ObjectMapper() {
@@ -21,27 +23,31 @@ public class ObjectMapper {
 
     public static <T> Optional<T> mapperToObject(ResultSet resultSet, T t) {
         try {
-            for (Field field : t.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                String fieldName = "";
-                if (field.isAnnotationPresent(Column.class) && !field.getAnnotation(Column.class).name().equals("")) {
-                    fieldName = field.getAnnotation(Column.class).name();
-                } else {
-                    fieldName = field.getName();
-                }
-                if (field.getType() == Integer.class) {
-                    field.set(t, resultSet.getInt(fieldName));
-                } else if (field.getType() == Long.class) {
-                    field.set(t, resultSet.getLong(fieldName));
-                } else if (field.getType() == String.class) {
-                    field.set(t, resultSet.getString(fieldName));
-                } else if (field.getType() == LocalDate.class) {
-                    field.set(t, resultSet.getDate(fieldName).toLocalDate());
-                } else if (field.getType() == UUID.class) {
-                    field.set(t, UUID.fromString(resultSet.getString(fieldName)));
+            for (ColumnMetadata column : getMetadata(t.getClass()).getColumns()) {
+                PropertyAccessor accessor = column.getAccessor();
+                Class<?> type = column.getType();
+                String fieldName = column.getName();
+                if (type == Integer.class) {
+                    accessor.set(t, resultSet.getInt(fieldName));
+                } else if (type == int.class) {
+                    accessor.setInt(t, resultSet.getInt(fieldName));
+                } else if (type == Long.class) {
+                    accessor.set(t, resultSet.getLong(fieldName));
+                } else if (type == long.class) {
+                    accessor.setLong(t, resultSet.getLong(fieldName));
+                } else if (type == double.class) {
+                    accessor.setDouble(t, resultSet.getDouble(fieldName));
+                } else if (type == boolean.class) {
+                    accessor.setBoolean(t, resultSet.getBoolean(fieldName));
+                } else if (type == String.class) {
+                    accessor.set(t, resultSet.getString(fieldName));
+                } else if (type == LocalDate.class) {
+                    accessor.set(t, resultSet.getDate(fieldName).toLocalDate());
+                } else if (type == UUID.class) {
+                    accessor.set(t, UUID.fromString(resultSet.getString(fieldName)));
                 }
             }
-        } catch (IllegalAccessException | SQLException e) {
+        } catch (SQLException e) {
             LOGGER.warn(e.getMessage());
         }
         return Optional.of(t);
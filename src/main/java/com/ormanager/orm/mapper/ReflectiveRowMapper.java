@@ -0,0 +1,39 @@
+package com.ormanager.orm.mapper;
+
+import com.ormanager.orm.metadata.EntityMetadata;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+
+/**
+ * Row mapper that resolves every column by name through {@link ObjectMapper#mapperToObject}.
+ */
+public class ReflectiveRowMapper<T> implements RowMapper<T> {
+    private final EntityMetadata<T> metadata;
+
+    public ReflectiveRowMapper(Class<T> entityClass) {
+        this.metadata = getMetadata(entityClass);
+    }
+
+    @Override
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        try {
+            T entity = metadata.getEntityClass().getConstructor().newInstance();
+            return ObjectMapper.mapperToObject(resultSet, entity).orElseThrow();
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Could not instantiate " + metadata.getEntityClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Serializable readId(ResultSet resultSet) throws SQLException {
+        var idColumnName = metadata.getIdColumnName();
+
+        return metadata.isNumericId() ?
+                resultSet.getLong(idColumnName) : UUID.fromString(resultSet.getString(idColumnName));
+    }
+}
@@ -0,0 +1,15 @@
+package com.ormanager.orm.mapper;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns the current row of a result set into an entity.
+ */
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet resultSet) throws SQLException;
+
+    Serializable readId(ResultSet resultSet) throws SQLException;
+}
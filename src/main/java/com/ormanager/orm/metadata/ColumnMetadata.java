@@ -0,0 +1,41 @@
+package com.ormanager.orm.metadata;
+
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+
+@Getter
+public final class ColumnMetadata {
+    private final String name;
+    private final Field field;
+    private final ColumnKind kind;
+    private final PropertyAccessor accessor;
+
+    ColumnMetadata(String name, Field field, ColumnKind kind) {
+        this.name = name;
+        this.field = field;
+        this.kind = kind;
+        this.accessor = PropertyAccessor.of(field);
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    public boolean isId() {
+        return kind == ColumnKind.ID;
+    }
+
+    public boolean isManyToOne() {
+        return kind == ColumnKind.MANY_TO_ONE;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + kind + ")";
+    }
+
+    public enum ColumnKind {
+        ID, BASIC, MANY_TO_ONE
+    }
+}
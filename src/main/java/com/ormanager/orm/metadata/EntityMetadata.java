@@ -0,0 +1,333 @@
+package com.ormanager.orm.metadata;
+
+import com.ormanager.orm.annotation.*;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable description of an entity class: table, id, columns in bind order, relationships
+ * and the SQL that never changes between calls. Built once per class by {@link EntityMetadataRegistry}.
+ */
+@Getter
+public final class EntityMetadata<T> {
+    private final Class<T> entityClass;
+    private final String tableName;
+    private final ColumnMetadata idColumn;
+    private final boolean numericId;
+    /**
+     * Id and basic columns in declaration order, read back from a result set.
+     */
+    private final List<ColumnMetadata> columns;
+    /**
+     * Columns in the order they are bound by the INSERT statement.
+     */
+    private final List<ColumnMetadata> insertColumns;
+    /**
+     * Columns in the order they are bound by the UPDATE statement, before the trailing id parameter.
+     */
+    private final List<ColumnMetadata> updateColumns;
+    /**
+     * Columns in the order they are bound by an upsert: the id, then {@link #updateColumns}.
+     */
+    private final List<ColumnMetadata> upsertColumns;
+    /**
+     * Columns listed by every generated SELECT, in this order: {@link #columns} first, then the foreign keys.
+     * The position of a column in this list plus one is its index in the result set.
+     */
+    private final List<String> selectColumns;
+    private final List<Field> basicFields;
+    private final List<RelationshipMetadata> manyToOneRelationships;
+    private final List<RelationshipMetadata> oneToManyRelationships;
+
+    private final String insertSql;
+    private final String updateByIdSql;
+    private final String selectAllSql;
+    private final String selectByIdSql;
+    private final String countByIdSql;
+    private final String deleteByIdSql;
+
+    private EntityMetadata(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        this.tableName = resolveTableName(entityClass);
+
+        var fields = Arrays.stream(entityClass.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                .toList();
+
+        this.idColumn = fields.stream()
+                .filter(field -> field.isAnnotationPresent(Id.class))
+                .findFirst()
+                .map(field -> new ColumnMetadata(field.getName(), field, ColumnMetadata.ColumnKind.ID))
+                .orElse(null);
+        this.numericId = idColumn != null && Number.class.isAssignableFrom(idColumn.getType());
+
+        this.basicFields = fields.stream()
+                .filter(field -> !field.isAnnotationPresent(Id.class))
+                .filter(field -> !field.isAnnotationPresent(OneToMany.class))
+                .filter(field -> !field.isAnnotationPresent(ManyToOne.class))
+                .filter(field -> field.getType() != Collection.class)
+                .toList();
+
+        this.manyToOneRelationships = fields.stream()
+                .filter(field -> field.isAnnotationPresent(ManyToOne.class))
+                .map(field -> new RelationshipMetadata(field, field.getType(), resolveJoinColumnName(field), ""))
+                .toList();
+
+        this.oneToManyRelationships = fields.stream()
+                .filter(field -> field.isAnnotationPresent(OneToMany.class))
+                .map(field -> new RelationshipMetadata(field, resolveElementType(field), "", field.getAnnotation(OneToMany.class).mappedBy()))
+                .toList();
+
+        var hydratedColumns = new ArrayList<ColumnMetadata>();
+        var boundColumns = new ArrayList<ColumnMetadata>();
+
+        for (var field : fields) {
+            if (field.isAnnotationPresent(Id.class)) {
+                hydratedColumns.add(idColumn);
+                if (!numericId) {
+                    boundColumns.add(idColumn);
+                }
+            } else if (field.isAnnotationPresent(ManyToOne.class)) {
+                boundColumns.add(new ColumnMetadata(resolveJoinColumnName(field), field, ColumnMetadata.ColumnKind.MANY_TO_ONE));
+            } else if (!field.isAnnotationPresent(OneToMany.class) && !Collection.class.isAssignableFrom(field.getType())) {
+                var column = new ColumnMetadata(resolveColumnName(field), field, ColumnMetadata.ColumnKind.BASIC);
+                hydratedColumns.add(column);
+                boundColumns.add(column);
+            }
+        }
+        this.columns = List.copyOf(hydratedColumns);
+        this.insertColumns = List.copyOf(boundColumns);
+        this.updateColumns = insertColumns.stream().filter(column -> !column.isId()).toList();
+
+        var upsert = new ArrayList<ColumnMetadata>();
+        if (idColumn != null) {
+            upsert.add(idColumn);
+        }
+        upsert.addAll(updateColumns);
+        this.upsertColumns = List.copyOf(upsert);
+
+        var projection = new ArrayList<String>();
+        columns.forEach(column -> projection.add(column.getName()));
+        manyToOneRelationships.forEach(relationship -> projection.add(relationship.getColumnName()));
+        this.selectColumns = List.copyOf(projection);
+
+        var idColumnName = idColumn == null ? "id" : idColumn.getName();
+        this.insertSql = "INSERT INTO " + tableName + "("
+                + insertColumns.stream().map(ColumnMetadata::getName).collect(Collectors.joining(","))
+                + ") VALUES("
+                + insertColumns.stream().map(column -> "?").collect(Collectors.joining(","))
+                + ");";
+        this.updateByIdSql = "UPDATE " + tableName + " SET "
+                + updateColumns.stream().map(EntityMetadata::updateAssignment).collect(Collectors.joining(", "))
+                + " WHERE " + idColumnName + " = ?";
+        this.selectAllSql = "SELECT " + String.join(", ", selectColumns) + " FROM " + tableName;
+        this.selectByIdSql = selectAllSql + " WHERE " + idColumnName + " = ?";
+        this.countByIdSql = "SELECT count(*) FROM " + tableName + " WHERE " + idColumnName + " = ?";
+        this.deleteByIdSql = "DELETE FROM " + tableName + " WHERE " + idColumnName + " = ?";
+    }
+
+    static <T> EntityMetadata<T> of(Class<T> entityClass) {
+        return new EntityMetadata<>(entityClass);
+    }
+
+    /**
+     * Mask with bit {@code i} set for every given column at position {@code i} of {@link #updateColumns}, or -1 when
+     * the columns cannot be described by a mask.
+     */
+    public int getUpdateColumnMask(Collection<ColumnMetadata> changedColumns) {
+        if (updateColumns.size() >= Integer.SIZE) {
+            return -1;
+        }
+        int mask = 0;
+
+        for (var column : changedColumns) {
+            mask |= 1 << updateColumns.indexOf(column);
+        }
+        return mask;
+    }
+
+    public List<ColumnMetadata> getUpdateColumns(int columnMask) {
+        var selected = new ArrayList<ColumnMetadata>();
+
+        for (int i = 0; i < updateColumns.size(); i++) {
+            if ((columnMask & (1 << i)) != 0) {
+                selected.add(updateColumns.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * UPDATE of the columns selected by {@link #getUpdateColumnMask}, bound in {@link #updateColumns} order and
+     * followed by the id.
+     */
+    public String getUpdateByIdSql(int columnMask) {
+        return "UPDATE " + tableName + " SET "
+                + getUpdateColumns(columnMask).stream().map(EntityMetadata::updateAssignment).collect(Collectors.joining(", "))
+                + " WHERE " + requireIdColumn().getName() + " = ?";
+    }
+
+    /**
+     * SELECT of several rows by id, with one placeholder per id in the IN list.
+     */
+    public String getSelectByIdsSql(int idCount) {
+        return selectAllSql + " WHERE " + requireIdColumn().getName() + " IN ("
+                + String.join(", ", Collections.nCopies(idCount, "?")) + ")";
+    }
+
+    /**
+     * DELETE of several rows by id, with one placeholder per id in the IN list.
+     */
+    public String getDeleteByIdsSql(int idCount) {
+        return "DELETE FROM " + tableName + " WHERE " + requireIdColumn().getName() + " IN ("
+                + String.join(", ", Collections.nCopies(idCount, "?")) + ")";
+    }
+
+    public boolean hasIdColumn() {
+        return idColumn != null;
+    }
+
+    public Field getIdField() {
+        return requireIdColumn().getField();
+    }
+
+    public String getIdColumnName() {
+        return getIdField().getName();
+    }
+
+    public boolean isParent() {
+        return !oneToManyRelationships.isEmpty();
+    }
+
+    public boolean isChild() {
+        return !manyToOneRelationships.isEmpty();
+    }
+
+    public Optional<RelationshipMetadata> getManyToOne() {
+        return manyToOneRelationships.stream().findFirst();
+    }
+
+    public Optional<RelationshipMetadata> getOneToMany() {
+        return oneToManyRelationships.stream().findFirst();
+    }
+
+    /**
+     * Result set index of a column read by the generated SELECTs.
+     */
+    public int getSelectIndex(String columnName) {
+        var position = selectColumns.indexOf(columnName);
+
+        if (position < 0) {
+            throw new OrmFieldTypeException("Column " + columnName + " is not selected from " + tableName);
+        }
+        return position + 1;
+    }
+
+    /**
+     * Selected column given by its column name or by the name of its field, {@code @ManyToOne} fields included.
+     */
+    public String resolveColumnName(String columnOrField) {
+        if (selectColumns.contains(columnOrField)) {
+            return columnOrField;
+        }
+        return columns.stream()
+                .filter(column -> column.getField().getName().equals(columnOrField))
+                .map(ColumnMetadata::getName)
+                .findFirst()
+                .or(() -> manyToOneRelationships.stream()
+                        .filter(relationship -> relationship.getField().getName().equals(columnOrField))
+                        .map(RelationshipMetadata::getColumnName)
+                        .findFirst())
+                .orElseThrow(() -> new OrmFieldTypeException("Column " + columnOrField + " is not selected from " + tableName));
+    }
+
+    public Serializable getId(Object entity) {
+        return idColumn == null ? null : (Serializable) idColumn.getAccessor().get(entity);
+    }
+
+    /**
+     * The id converted to the type of the id field, so that an {@code Integer} or a text id matches the {@code Long}
+     * or {@code UUID} ids of loaded entities.
+     */
+    public Serializable normalizeId(Serializable id) {
+        var idType = requireIdColumn().getType();
+
+        if (id == null || idType.isInstance(id)) return id;
+        if (id instanceof Number number && (idType == Long.class || idType == long.class)) return number.longValue();
+        if (id instanceof Number number && (idType == Integer.class || idType == int.class)) return number.intValue();
+
+        try {
+            if (idType == Long.class || idType == long.class) return Long.valueOf(id.toString());
+            if (idType == Integer.class || idType == int.class) return Integer.valueOf(id.toString());
+            if (idType == UUID.class) return UUID.fromString(id.toString());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Id " + id + " is not a valid " + idType.getSimpleName() + " id", e);
+        }
+        if (idType == String.class) return id.toString();
+
+        throw new IllegalArgumentException("Id " + id + " cannot be converted to " + idType.getSimpleName());
+    }
+
+    public void setId(Object entity, Object id) {
+        requireIdColumn().getAccessor().set(entity, id);
+    }
+
+    private ColumnMetadata requireIdColumn() {
+        if (idColumn == null) {
+            throw new OrmFieldTypeException("ID field not found!");
+        }
+        return idColumn;
+    }
+
+    /**
+     * A null parent leaves the foreign key as it is, because a parent that was not loaded is not a removed one.
+     */
+    private static String updateAssignment(ColumnMetadata column) {
+        return column.isManyToOne() ?
+                column.getName() + " = COALESCE(?, " + column.getName() + ")" : column.getName() + " = ?";
+    }
+
+    static String resolveTableName(Class<?> clazz) {
+        var table = clazz.getAnnotation(Table.class);
+
+        return table != null && !table.name().isEmpty() ? table.name() : clazz.getSimpleName().toLowerCase();
+    }
+
+    static String resolveColumnName(Field field) {
+        var column = field.getAnnotation(Column.class);
+
+        return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+    }
+
+    static String resolveJoinColumnName(Field field) {
+        var columnName = field.getAnnotation(ManyToOne.class).columnName();
+
+        return columnName.isEmpty() ? field.getType().getSimpleName().toLowerCase() + "_id" : columnName;
+    }
+
+    private static Class<?> resolveElementType(Field field) {
+        if (field.getGenericType() instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            return elementType;
+        }
+        return Object.class;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityMetadata{" + entityClass.getSimpleName() + " -> " + tableName + ", columns=" + insertColumns + "}";
+    }
+}
@@ -0,0 +1,40 @@
+package com.ormanager.orm.metadata;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j(topic = "EntityMetadataRegistry")
+public final class EntityMetadataRegistry {
+    private static final Map<Class<?>, EntityMetadata<?>> METADATA = new ConcurrentHashMap<>();
+
+    private EntityMetadataRegistry() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMetadata<T> getMetadata(Class<T> entityClass) {
+        var metadata = METADATA.get(entityClass);
+
+        if (metadata == null) {
+            metadata = METADATA.computeIfAbsent(entityClass, EntityMetadata::of);
+            LOGGER.debug("Metadata built: {}", metadata);
+        }
+        return (EntityMetadata<T>) metadata;
+    }
+
+    public static void register(Class<?>... entityClasses) {
+        for (var entityClass : entityClasses) {
+            getMetadata(entityClass);
+        }
+    }
+
+    public static boolean isRegistered(Class<?> entityClass) {
+        return METADATA.containsKey(entityClass);
+    }
+
+    public static int size() {
+        return METADATA.size();
+    }
+}
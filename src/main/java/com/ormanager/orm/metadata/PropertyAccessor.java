@@ -0,0 +1,140 @@
+package com.ormanager.orm.metadata;
+
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes one entity field through a {@link VarHandle} obtained with
+ * {@link MethodHandles#privateLookupIn}, so no {@code setAccessible} or {@code Field.get/set} is involved.
+ * Primitive fields have typed getters and setters that never box.
+ */
+public final class PropertyAccessor {
+    @Getter
+    private final String name;
+    @Getter
+    private final Class<?> type;
+    @Getter
+    private final VarHandle varHandle;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle typedGetter;
+    private final MethodHandle typedSetter;
+
+    private PropertyAccessor(Field field, VarHandle varHandle) {
+        this.name = field.getName();
+        this.type = field.getType();
+        this.varHandle = varHandle;
+
+        var typedGet = varHandle.toMethodHandle(VarHandle.AccessMode.GET);
+        var typedSet = varHandle.toMethodHandle(VarHandle.AccessMode.SET);
+
+        this.typedGetter = typedGet.asType(MethodType.methodType(type, Object.class));
+        this.typedSetter = typedSet.asType(MethodType.methodType(void.class, Object.class, type));
+        this.getter = typedGet.asType(MethodType.methodType(Object.class, Object.class));
+        this.setter = typedSet.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    public static PropertyAccessor of(Field field) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return new PropertyAccessor(field, lookup.unreflectVarHandle(field));
+        } catch (IllegalAccessException e) {
+            throw new OrmFieldTypeException("Could not create accessor for field " + field.getName(), e);
+        }
+    }
+
+    public Object get(Object entity) {
+        try {
+            return getter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw failure("read", e);
+        }
+    }
+
+    public void set(Object entity, Object value) {
+        try {
+            setter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw failure("write", e);
+        }
+    }
+
+    public int getInt(Object entity) {
+        try {
+            return (int) typedGetter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw failure("read", e);
+        }
+    }
+
+    public void setInt(Object entity, int value) {
+        try {
+            typedSetter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw failure("write", e);
+        }
+    }
+
+    public long getLong(Object entity) {
+        try {
+            return (long) typedGetter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw failure("read", e);
+        }
+    }
+
+    public void setLong(Object entity, long value) {
+        try {
+            typedSetter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw failure("write", e);
+        }
+    }
+
+    public double getDouble(Object entity) {
+        try {
+            return (double) typedGetter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw failure("read", e);
+        }
+    }
+
+    public void setDouble(Object entity, double value) {
+        try {
+            typedSetter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw failure("write", e);
+        }
+    }
+
+    public boolean getBoolean(Object entity) {
+        try {
+            return (boolean) typedGetter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw failure("read", e);
+        }
+    }
+
+    public void setBoolean(Object entity, boolean value) {
+        try {
+            typedSetter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw failure("write", e);
+        }
+    }
+
+    private OrmFieldTypeException failure(String operation, Throwable cause) {
+        return new OrmFieldTypeException("Could not " + operation + " field " + name + " of type " + type.getSimpleName(), cause);
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyAccessor{" + name + "}";
+    }
+}
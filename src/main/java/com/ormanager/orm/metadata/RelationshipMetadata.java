@@ -0,0 +1,39 @@
+package com.ormanager.orm.metadata;
+
+import com.ormanager.orm.annotation.ManyToOne;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+
+@Getter
+public final class RelationshipMetadata {
+    private final Field field;
+    private final Class<?> targetClass;
+    /**
+     * Foreign key column for {@code @ManyToOne}, empty for {@code @OneToMany}.
+     */
+    private final String columnName;
+    /**
+     * Owning field name on the child side for {@code @OneToMany}, empty for {@code @ManyToOne}.
+     */
+    private final String mappedBy;
+    /**
+     * {@link ManyToOne#fetchBatchSize()}, 0 for {@code @OneToMany}.
+     */
+    private final int fetchBatchSize;
+    private final PropertyAccessor accessor;
+
+    RelationshipMetadata(Field field, Class<?> targetClass, String columnName, String mappedBy) {
+        this.field = field;
+        this.targetClass = targetClass;
+        this.columnName = columnName;
+        this.mappedBy = mappedBy;
+        this.fetchBatchSize = field.isAnnotationPresent(ManyToOne.class) ? field.getAnnotation(ManyToOne.class).fetchBatchSize() : 0;
+        this.accessor = PropertyAccessor.of(field);
+    }
+
+    @Override
+    public String toString() {
+        return field.getName() + " -> " + targetClass.getSimpleName();
+    }
+}
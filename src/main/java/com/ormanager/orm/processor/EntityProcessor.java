@@ -0,0 +1,259 @@
+package com.ormanager.orm.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads the ORM annotations at compile time and generates, for every {@code @Entity}, a
+ * {@code <Entity>_OrmMapper} class in the entity's package. The generated class binds INSERT parameters and
+ * hydrates rows without looking at annotations at runtime. All entity names are also written to
+ * {@value #ENTITY_INDEX}, one binary class name per line.
+ * <p>
+ * Annotations are matched by name, so this class compiles before the rest of the module.
+ */
+@SupportedAnnotationTypes(EntityProcessor.ENTITY)
+public class EntityProcessor extends AbstractProcessor {
+    static final String ENTITY_INDEX = "META-INF/ormanager/entities";
+    static final String MAPPER_SUFFIX = "_OrmMapper";
+
+    static final String ENTITY = "com.ormanager.orm.annotation.Entity";
+    private static final String TABLE = "com.ormanager.orm.annotation.Table";
+    private static final String ID = "com.ormanager.orm.annotation.Id";
+    private static final String COLUMN = "com.ormanager.orm.annotation.Column";
+    private static final String MANY_TO_ONE = "com.ormanager.orm.annotation.ManyToOne";
+    private static final String ONE_TO_MANY = "com.ormanager.orm.annotation.OneToMany";
+
+    private final Set<String> indexedEntities = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        for (var annotation : annotations) {
+            for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Entity is only allowed on classes", element);
+                    continue;
+                }
+                var entity = (TypeElement) element;
+                indexedEntities.add(processingEnv.getElementUtils().getBinaryName(entity).toString());
+
+                buildModel(entity).ifPresent(this::writeMapper);
+            }
+        }
+        return false;
+    }
+
+    private Optional<EntityModel> buildModel(TypeElement entity) {
+        if (entity.getModifiers().contains(Modifier.PRIVATE) || entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            note(entity, "is private or abstract, no mapper generated");
+            return Optional.empty();
+        }
+
+        var fields = instanceFields(entity);
+        var idField = fields.stream().filter(field -> hasAnnotation(field, ID)).findFirst();
+
+        if (idField.isEmpty()) {
+            note(entity, "has no @Id field, no mapper generated");
+            return Optional.empty();
+        }
+
+        var id = basicField(entity, idField.get(), idField.get().getSimpleName().toString());
+        var numericId = isNumeric(idField.get().asType());
+        var columns = new ArrayList<FieldModel>();
+        var insertColumns = new ArrayList<FieldModel>();
+
+        for (var field : fields) {
+            if (field == idField.get()) {
+                columns.add(id);
+                if (!numericId) {
+                    insertColumns.add(id);
+                }
+            } else if (hasAnnotation(field, MANY_TO_ONE)) {
+                var parentId = parentId(field);
+
+                if (parentId.isEmpty()) {
+                    note(entity, "references a parent without @Id, no mapper generated");
+                    return Optional.empty();
+                }
+                insertColumns.add(new FieldModel(field.getSimpleName().toString(), joinColumnName(field),
+                        typeName(field.asType()), typeName(entity.asType()), isNumeric(field.asType()), parentId.get()));
+            } else if (!hasAnnotation(field, ONE_TO_MANY) && !isCollection(field.asType())) {
+                var column = basicField(entity, field, columnName(field));
+                columns.add(column);
+                insertColumns.add(column);
+            }
+        }
+
+        var binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        var packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        var simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+
+        return Optional.of(new EntityModel(packageName, typeName(entity.asType()), simpleBinaryName + MAPPER_SUFFIX,
+                tableName(entity), id, numericId, List.copyOf(columns), List.copyOf(insertColumns)));
+    }
+
+    private Optional<FieldModel> parentId(VariableElement manyToOneField) {
+        if (!(manyToOneField.asType() instanceof DeclaredType parentType)) {
+            return Optional.empty();
+        }
+        var parent = (TypeElement) parentType.asElement();
+
+        return instanceFields(parent).stream()
+                .filter(field -> hasAnnotation(field, ID))
+                .findFirst()
+                .map(field -> basicField(parent, field, field.getSimpleName().toString()));
+    }
+
+    private FieldModel basicField(TypeElement owner, VariableElement field, String columnName) {
+        return new FieldModel(field.getSimpleName().toString(), columnName, typeName(field.asType()),
+                typeName(owner.asType()), isNumeric(field.asType()), null);
+    }
+
+    private void writeMapper(EntityModel model) {
+        var qualifiedName = model.packageName().isEmpty() ?
+                model.mapperName() : model.packageName() + "." + model.mapperName();
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName).openWriter()) {
+            writer.write(new MapperSourceWriter(model).write());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private void writeIndex() {
+        if (indexedEntities.isEmpty()) {
+            return;
+        }
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ENTITY_INDEX).openWriter()) {
+            for (var entity : indexedEntities) {
+                writer.write(entity);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + ENTITY_INDEX + ": " + e.getMessage());
+        }
+    }
+
+    private static List<VariableElement> instanceFields(TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+                .toList();
+    }
+
+    private String tableName(TypeElement entity) {
+        var name = annotationValue(entity, TABLE, "name");
+
+        return name.isEmpty() ? entity.getSimpleName().toString().toLowerCase() : name;
+    }
+
+    private String columnName(VariableElement field) {
+        var name = annotationValue(field, COLUMN, "name");
+
+        return name.isEmpty() ? field.getSimpleName().toString() : name;
+    }
+
+    private String joinColumnName(VariableElement field) {
+        var name = annotationValue(field, MANY_TO_ONE, "columnName");
+
+        if (!name.isEmpty()) {
+            return name;
+        }
+        var parentName = processingEnv.getTypeUtils().asElement(field.asType()).getSimpleName().toString();
+        return parentName.toLowerCase() + "_id";
+    }
+
+    private boolean isNumeric(TypeMirror type) {
+        var number = processingEnv.getElementUtils().getTypeElement(Number.class.getName()).asType();
+
+        return type.getKind() == TypeKind.DECLARED && processingEnv.getTypeUtils().isAssignable(type, number);
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        var types = processingEnv.getTypeUtils();
+        var collection = processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType();
+
+        return type.getKind() == TypeKind.DECLARED && types.isAssignable(types.erasure(type), types.erasure(collection));
+    }
+
+    /**
+     * Source name of the erased type, without the type-use annotations that {@code TypeMirror.toString()} keeps.
+     */
+    private String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase();
+        } else if (type instanceof DeclaredType declaredType) {
+            return ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName).isPresent();
+    }
+
+    private String annotationValue(Element element, String annotationName, String attribute) {
+        return findAnnotation(element, annotationName)
+                .flatMap(annotation -> processingEnv.getElementUtils().getElementValuesWithDefaults(annotation)
+                        .entrySet().stream()
+                        .filter(entry -> entry.getKey().getSimpleName().contentEquals(attribute))
+                        .map(entry -> String.valueOf(entry.getValue().getValue()))
+                        .findFirst())
+                .orElse("");
+    }
+
+    private static Optional<? extends AnnotationMirror> findAnnotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+                .filter(annotation -> ((TypeElement) annotation.getAnnotationType().asElement())
+                        .getQualifiedName().contentEquals(annotationName))
+                .findFirst();
+    }
+
+    private void note(TypeElement entity, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, entity.getSimpleName() + " " + message, entity);
+    }
+
+    record EntityModel(String packageName, String entityType, String mapperName, String tableName,
+                       FieldModel id, boolean numericId, List<FieldModel> columns, List<FieldModel> insertColumns) {
+    }
+
+    /**
+     * @param parentId id of the referenced entity for a {@code @ManyToOne} field, {@code null} otherwise
+     */
+    record FieldModel(String fieldName, String columnName, String type, String ownerType, boolean numeric,
+                      FieldModel parentId) {
+
+        boolean isManyToOne() {
+            return parentId != null;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ormanager.orm.processor;
+
+import com.ormanager.orm.processor.EntityProcessor.EntityModel;
+import com.ormanager.orm.processor.EntityProcessor.FieldModel;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the source of one {@code <Entity>_OrmMapper}. Fields are read and written through
+ * {@code VarHandle}s looked up by name once, in the static initializer of the generated class.
+ */
+class MapperSourceWriter {
+    private static final Map<String, String> HYDRATED_TYPES = Map.of(
+            "java.lang.Integer", "(java.lang.Integer) resultSet.getInt(%s)",
+            "int", "resultSet.getInt(%s)",
+            "java.lang.Long", "(java.lang.Long) resultSet.getLong(%s)",
+            "long", "resultSet.getLong(%s)",
+            "double", "resultSet.getDouble(%s)",
+            "boolean", "resultSet.getBoolean(%s)",
+            "java.lang.String", "resultSet.getString(%s)",
+            "java.time.LocalDate", "localDate(resultSet.getDate(%s))",
+            "java.util.UUID", "uuid(resultSet.getString(%s))"
+    );
+
+    private final EntityModel model;
+    private final StringBuilder source = new StringBuilder();
+
+    MapperSourceWriter(EntityModel model) {
+        this.model = model;
+    }
+
+    String write() {
+        var handles = new LinkedHashMap<String, FieldModel>();
+        model.columns().forEach(field -> handles.put(field.fieldName(), field));
+        model.insertColumns().forEach(field -> handles.put(field.fieldName(), field));
+
+        if (!model.packageName().isEmpty()) {
+            line("package %s;", model.packageName());
+            line("");
+        }
+        line("@javax.annotation.processing.Generated(\"%s\")", EntityProcessor.class.getName());
+        line("public final class %s implements com.ormanager.orm.mapper.GeneratedMapper<%s> {", model.mapperName(), model.entityType());
+        line("    private static final java.util.List<String> COLUMN_NAMES = java.util.List.of(%s);",
+                model.columns().stream().map(field -> quote(field.columnName())).collect(Collectors.joining(", ")));
+        line("    private static final java.lang.invoke.MethodHandle CONSTRUCTOR;");
+        handles.values().forEach(field -> {
+            line("    private static final java.lang.invoke.VarHandle %s;", handle(field));
+            if (field.isManyToOne()) {
+                line("    private static final java.lang.invoke.VarHandle %s;", parentHandle(field));
+            }
+        });
+        line("");
+        writeStaticInitializer(handles);
+        writeMetadata();
+        writeBinder("bindInsert", model.insertColumns(), false);
+        writeBinder("bindUpdate", updateColumns(), true);
+        writeMapRow();
+        writeReadId();
+        writeHelpers();
+        line("}");
+        return source.toString();
+    }
+
+    private void writeStaticInitializer(Map<String, FieldModel> handles) {
+        line("    static {");
+        line("        try {");
+        line("            var lookup = java.lang.invoke.MethodHandles.privateLookupIn(%s.class, java.lang.invoke.MethodHandles.lookup());", model.entityType());
+        line("            CONSTRUCTOR = lookup.findConstructor(%s.class, java.lang.invoke.MethodType.methodType(void.class));", model.entityType());
+        handles.values().forEach(field -> {
+            line("            %s = lookup.findVarHandle(%s.class, %s, %s.class);",
+                    handle(field), model.entityType(), quote(field.fieldName()), field.type());
+            if (field.isManyToOne()) {
+                var parentId = field.parentId();
+                line("            %s = java.lang.invoke.MethodHandles.privateLookupIn(%s.class, java.lang.invoke.MethodHandles.lookup())",
+                        parentHandle(field), parentId.ownerType());
+                line("                    .findVarHandle(%s.class, %s, %s.class);",
+                        parentId.ownerType(), quote(parentId.fieldName()), parentId.type());
+            }
+        });
+        line("        } catch (ReflectiveOperationException e) {");
+        line("            throw new ExceptionInInitializerError(e);");
+        line("        }");
+        line("    }");
+        line("");
+    }
+
+    private void writeMetadata() {
+        line("    @Override");
+        line("    public Class<%s> getEntityClass() {", model.entityType());
+        line("        return %s.class;", model.entityType());
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String getIdColumnName() {");
+        line("        return %s;", quote(model.id().fieldName()));
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public java.util.List<String> getColumnNames() {");
+        line("        return COLUMN_NAMES;");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String getInsertSql() {");
+        line("        return %s;", quote("INSERT INTO " + model.tableName() + "("
+                + model.insertColumns().stream().map(FieldModel::columnName).collect(Collectors.joining(","))
+                + ") VALUES("
+                + model.insertColumns().stream().map(field -> "?").collect(Collectors.joining(","))
+                + ");"));
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String getUpdateSql() {");
+        line("        return %s;", quote("UPDATE " + model.tableName() + " SET "
+                + updateColumns().stream().map(MapperSourceWriter::updateAssignment).collect(Collectors.joining(", "))
+                + " WHERE " + model.id().fieldName() + " = ?"));
+        line("    }");
+        line("");
+    }
+
+    private List<FieldModel> updateColumns() {
+        return model.insertColumns().stream().filter(field -> field != model.id()).toList();
+    }
+
+    /**
+     * Same assignments as {@code EntityMetadata}: a null parent leaves the foreign key unchanged.
+     */
+    private static String updateAssignment(FieldModel field) {
+        return field.isManyToOne() ?
+                field.columnName() + " = COALESCE(?, " + field.columnName() + ")" : field.columnName() + " = ?";
+    }
+
+    private void writeBinder(String methodName, List<FieldModel> columns, boolean bindIdLast) {
+        line("    @Override");
+        line("    public void %s(Object entity, java.sql.PreparedStatement statement) throws java.sql.SQLException {", methodName);
+        line("        var target = (%s) entity;", model.entityType());
+
+        for (int i = 0; i < columns.size(); i++) {
+            var field = columns.get(i);
+            var index = i + 1;
+            var value = "(" + field.type() + ") " + handle(field) + ".get(target)";
+
+            if (field.isManyToOne()) {
+                var parentId = "(" + field.parentId().type() + ") " + parentHandle(field) + ".get(" + field.fieldName() + "Value)";
+                line("        var %sValue = %s;", field.fieldName(), value);
+                line("        if (%sValue == null) {", field.fieldName());
+                line("            statement.setObject(%d, null);", index);
+                line("        } else {");
+                if (field.parentId().numeric()) {
+                    line("            statement.setObject(%d, %s);", index, parentId);
+                } else {
+                    line("            statement.setString(%d, java.util.Objects.toString(%s, null));", index, parentId);
+                }
+                line("        }");
+                continue;
+            }
+
+            switch (field.type()) {
+                case "java.lang.String" -> line("        statement.setString(%d, %s);", index, value);
+                case "int" -> line("        statement.setInt(%d, %s);", index, value);
+                case "long" -> line("        statement.setLong(%d, %s);", index, value);
+                case "double" -> line("        statement.setDouble(%d, %s);", index, value);
+                case "boolean" -> line("        statement.setBoolean(%d, %s);", index, value);
+                case "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.Boolean" ->
+                        line("        statement.setObject(%d, %s);", index, value);
+                case "java.time.LocalDate" -> line("        statement.setDate(%d, sqlDate(%s));", index, value);
+                case "java.time.LocalTime", "java.time.LocalDateTime" ->
+                        line("        statement.setTimestamp(%d, timestamp(%s));", index, value);
+                default -> {
+                    if (field == model.id()) {
+                        line("        statement.setString(%d, java.util.Objects.toString(%s, null));", index, value);
+                    } else {
+                        line("        statement.setObject(%d, null);", index);
+                    }
+                }
+            }
+        }
+        if (bindIdLast) {
+            line("        statement.setString(%d, java.util.Objects.toString(%s.get(target), null));", columns.size() + 1, handle(model.id()));
+        }
+        line("    }");
+        line("");
+    }
+
+    private void writeMapRow() {
+        line("    @Override");
+        line("    public %s mapRow(java.sql.ResultSet resultSet, int[] columnIndexes) throws java.sql.SQLException {", model.entityType());
+        line("        %s target;", model.entityType());
+        line("        try {");
+        line("            target = (%s) CONSTRUCTOR.invokeExact();", model.entityType());
+        line("        } catch (RuntimeException | Error e) {");
+        line("            throw e;");
+        line("        } catch (Throwable e) {");
+        line("            throw new java.sql.SQLException(\"Could not instantiate %s\", e);", model.entityType());
+        line("        }");
+
+        List<FieldModel> columns = model.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            var field = columns.get(i);
+            var reader = HYDRATED_TYPES.get(field.type());
+
+            if (reader != null) {
+                line("        %s.set(target, %s);", handle(field), reader.formatted("columnIndexes[" + i + "]"));
+            }
+        }
+        line("        return target;");
+        line("    }");
+        line("");
+    }
+
+    private void writeReadId() {
+        line("    @Override");
+        line("    public java.io.Serializable readId(java.sql.ResultSet resultSet, int idIndex) throws java.sql.SQLException {");
+        if (model.numericId()) {
+            line("        return resultSet.getLong(idIndex);");
+        } else {
+            line("        return java.util.UUID.fromString(resultSet.getString(idIndex));");
+        }
+        line("    }");
+        line("");
+    }
+
+    private void writeHelpers() {
+        line("    private static java.time.LocalDate localDate(java.sql.Date date) {");
+        line("        return date == null ? null : date.toLocalDate();");
+        line("    }");
+        line("");
+        line("    private static java.util.UUID uuid(String uuid) {");
+        line("        return uuid == null ? null : java.util.UUID.fromString(uuid);");
+        line("    }");
+        line("");
+        line("    private static java.sql.Date sqlDate(java.time.LocalDate localDate) {");
+        line("        return localDate == null ? null : java.sql.Date.valueOf(localDate);");
+        line("    }");
+        line("");
+        line("    private static java.sql.Timestamp timestamp(java.time.LocalTime localTime) {");
+        line("        return localTime == null ? null : java.sql.Timestamp.valueOf(localTime.atDate(java.time.LocalDate.now()));");
+        line("    }");
+        line("");
+        line("    private static java.sql.Timestamp timestamp(java.time.LocalDateTime localDateTime) {");
+        line("        return localDateTime == null ? null : java.sql.Timestamp.valueOf(localDateTime);");
+        line("    }");
+    }
+
+    private static String handle(FieldModel field) {
+        return "FIELD_" + field.fieldName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    private static String parentHandle(FieldModel field) {
+        return handle(field) + "_PARENT_ID";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void line(String format, Object... args) {
+        source.append(args.length == 0 ? format : format.formatted(args)).append('\n');
+    }
+}
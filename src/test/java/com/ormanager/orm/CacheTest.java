@@ -8,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -161,6 +162,33 @@ class CacheTest {
                 .containsOnly(publisherOne);
     }
 
+    @Test
+    @DisplayName("DELETE FROM CACHE: Should report a deleted object as REMOVED without keeping it reachable")
+    void deleteFromCacheKeepsRemovedObjectsWeakly() throws InterruptedException {
+
+        // given
+        Cache cache = testable;
+        Book deleted = new Book(10L, "Deleted", LocalDate.now(), null);
+        cache.putToCache(deleted);
+
+        // when
+        cache.deleteFromCache(deleted);
+        var removedState = cache.getState(deleted);
+        var reference = new WeakReference<>(deleted);
+        deleted = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        cache.deleteFromCache(bookFour);
+
+        // then
+        assertThat(removedState).isEqualTo(EntityState.REMOVED);
+        assertThat(reference.get()).isNull();
+        assertThat(cache.getRemovedCount()).isEqualTo(1);
+        assertThat(cache.getState(bookFour)).isEqualTo(EntityState.REMOVED);
+    }
+
     @Test
     @DisplayName("IS RECORD IN CACHE: Should return true if object is stored in cache.")
     void isRecordInCache() {
@@ -0,0 +1,45 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.test_entities.AllFieldsClass;
+import com.ormanager.orm.test_entities.TestClassBook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassScannerTest {
+
+    @Test
+    @DisplayName("1. Default packages should be read from the entity index")
+    void test1() {
+        //WHEN
+        var entities = ClassScanner.getClassesMarkedAsEntity();
+
+        //THEN
+        assertThat(entities).containsExactlyInAnyOrder(Book.class, Publisher.class);
+    }
+
+    @Test
+    @DisplayName("2. Only entities from the given packages should be returned")
+    void test2() {
+        //WHEN
+        var entities = ClassScanner.getClassesMarkedAsEntity("com.ormanager.orm.test_entities");
+
+        //THEN
+        assertThat(entities).contains(AllFieldsClass.class, TestClassBook.class)
+                .doesNotContain(Book.class, Publisher.class);
+    }
+
+    @Test
+    @DisplayName("3. Package without indexed entities should fall back to classpath scan")
+    void test3() {
+        //WHEN
+        var entities = ClassScanner.getClassesMarkedAsEntity("com.ormanager.orm.metadata");
+
+        //THEN
+        assertThat(entities).isEmpty();
+        assertThat(ClassScanner.getLastScanDuration()).isPositive();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingLoaderTest {
+
+    @Test
+    @DisplayName("1. Concurrent lookups within the window should be loaded by one batch")
+    void test1() throws Exception {
+        //GIVEN
+        var loadedBatches = new CopyOnWriteArrayList<List<Serializable>>();
+        var pool = Executors.newFixedThreadPool(8);
+        var start = new CountDownLatch(1);
+        var results = new ArrayList<Future<Optional<Book>>>();
+
+        try (var loader = new CoalescingLoader(booksLoader(loadedBatches), Duration.ofMillis(200), 100)) {
+            //WHEN
+            for (long id : new long[]{1, 2, 3, 2, 2, 4, 1, 5}) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return loader.load(Book.class, id).join();
+                }));
+            }
+            start.countDown();
+
+            //THEN
+            for (int i = 0; i < results.size(); i++) {
+                assertTrue(results.get(i).get(5, TimeUnit.SECONDS).isPresent());
+            }
+            assertEquals(1, loadedBatches.size());
+            assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), new HashSet<>(loadedBatches.get(0)));
+            assertEquals(3, loader.getSharedRequestCount());
+            assertEquals(1, loader.getBatchCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("2. A full batch should be loaded without waiting for the window")
+    void test2() {
+        //GIVEN
+        var loadedBatches = new CopyOnWriteArrayList<List<Serializable>>();
+
+        try (var loader = new CoalescingLoader(booksLoader(loadedBatches), Duration.ofHours(1), 2)) {
+            //WHEN
+            var first = loader.load(Book.class, 1L);
+            var second = loader.load(Book.class, 7L);
+
+            //THEN
+            assertEquals("book 1", first.join().orElseThrow().getTitle());
+            assertEquals("book 7", second.join().orElseThrow().getTitle());
+            assertEquals(List.of(List.of(1L, 7L)), loadedBatches);
+        }
+    }
+
+    @Test
+    @DisplayName("3. A failed batch should fail every lookup in it")
+    void test3() {
+        //GIVEN
+        try (var loader = new CoalescingLoader((entityClass, ids) -> {
+            throw new SQLException("connection lost");
+        }, Duration.ofMillis(1), 10)) {
+            //WHEN
+            var lookup = loader.load(Book.class, 1L);
+
+            //THEN
+            var exception = assertThrows(CompletionException.class, lookup::join);
+            assertInstanceOf(SQLException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("4. Lookups of an Integer id should share the load of the Long id and find its entity")
+    void test4() {
+        //GIVEN
+        var loadedBatches = new CopyOnWriteArrayList<List<Serializable>>();
+
+        try (var loader = new CoalescingLoader(booksLoader(loadedBatches), Duration.ofHours(1), 2)) {
+            //WHEN
+            var first = loader.load(Book.class, 3);
+            var second = loader.load(Book.class, 3L);
+            var third = loader.load(Book.class, 4);
+
+            //THEN
+            assertEquals("book 3", first.join().orElseThrow().getTitle());
+            assertSame(first.join().orElseThrow(), second.join().orElseThrow());
+            assertEquals("book 4", third.join().orElseThrow().getTitle());
+            assertEquals(List.of(List.of(3L, 4L)), loadedBatches);
+            assertEquals(1, loader.getSharedRequestCount());
+        }
+    }
+
+    private static CoalescingLoader.BatchLoader booksLoader(List<List<Serializable>> loadedBatches) {
+        return (entityClass, ids) -> {
+            loadedBatches.add(ids);
+            var books = new HashMap<Serializable, Book>();
+            ids.forEach(id -> books.put(id, new Book((Long) id, "book " + id, LocalDate.now(), null)));
+            return books;
+        };
+    }
+}
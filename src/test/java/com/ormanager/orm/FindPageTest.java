@@ -0,0 +1,119 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindPageTest {
+    private static OrmManager ormManager;
+
+    @BeforeAll
+    static void openManager() throws SQLException {
+        ormManager = OrmManager.withPropertiesFrom("src/test/resources/application_test.properties");
+    }
+
+    @AfterAll
+    static void closeManager() throws SQLException {
+        ormManager.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException, NoSuchFieldException {
+        ormManager.getOrmCache().clearCache();
+        ormManager.dropEntity(Book.class);
+        ormManager.dropEntity(Publisher.class);
+        ormManager.register(Publisher.class, Book.class);
+        ormManager.createRelationships(Publisher.class, Book.class);
+    }
+
+    @Test
+    @DisplayName("1. Pages by id should cover every row once, in id order")
+    void test1() {
+        //GIVEN
+        var publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 25; i++) {
+            publishers.add(new Publisher("paged" + i));
+        }
+        ormManager.saveAll(publishers);
+
+        //WHEN
+        var first = ormManager.findPage(Publisher.class, null, 10);
+        var second = ormManager.nextPage(first);
+        var third = ormManager.nextPage(second);
+        var afterLast = ormManager.nextPage(third);
+
+        //THEN
+        assertEquals(List.of(10, 10, 5), List.of(first.getContent().size(), second.getContent().size(), third.getContent().size()));
+        assertTrue(first.hasNext() && second.hasNext());
+        assertFalse(third.hasNext());
+        assertTrue(afterLast.isEmpty());
+        assertEquals(publishers.get(10).getId(), second.getContent().get(0).getId());
+        assertEquals(publishers.get(24).getId(), third.getLastId());
+    }
+
+    @Test
+    @DisplayName("2. Pages sorted by a column should break ties on the id")
+    void test2() {
+        //GIVEN
+        for (var title : List.of("b", "a", "b", "a", "c")) {
+            ormManager.save(new Book(title, LocalDate.now()));
+        }
+
+        //WHEN
+        var titles = new ArrayList<String>();
+        var ids = new ArrayList<Long>();
+        var page = ormManager.findPage(Book.class, "title", null, null, 2);
+        while (!page.isEmpty()) {
+            page.getContent().forEach(book -> {
+                titles.add(book.getTitle());
+                ids.add(book.getId());
+            });
+            page = ormManager.nextPage(page);
+        }
+
+        //THEN
+        assertEquals(List.of("a", "a", "b", "b", "c"), titles);
+        assertTrue(ids.get(0) < ids.get(1) && ids.get(2) < ids.get(3));
+    }
+
+    @Test
+    @DisplayName("3. A limit below 1 should be rejected")
+    void test3() {
+        //THEN
+        assertThrows(IllegalArgumentException.class, () -> ormManager.findPage(Publisher.class, null, 0));
+    }
+
+    @Test
+    @DisplayName("4. The sort column should be accepted by field name as well, and an unknown one rejected")
+    void test4() {
+        //GIVEN
+        var today = LocalDate.now();
+        for (int days = 3; days > 0; days--) {
+            ormManager.save(new Book("published " + days + " days ago", today.minusDays(days)));
+        }
+
+        //WHEN
+        var byField = ormManager.findPage(Book.class, "publishedAt", null, null, 2);
+        var byColumn = ormManager.findPage(Book.class, "published_at", null, null, 2);
+        var next = ormManager.nextPage(byField);
+
+        //THEN
+        assertEquals("published_at", byField.getSortColumn());
+        assertEquals(byColumn.getContent(), byField.getContent());
+        assertEquals("published 3 days ago", byField.getContent().get(0).getTitle());
+        assertEquals("published 1 days ago", next.getContent().get(0).getTitle());
+        assertThrows(OrmFieldTypeException.class, () -> ormManager.findPage(Book.class, "unknown", null, null, 2));
+    }
+}
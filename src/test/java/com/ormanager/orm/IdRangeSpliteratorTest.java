@@ -0,0 +1,58 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.orm.exception.OrmQueryException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdRangeSpliteratorTest {
+
+    @Test
+    @DisplayName("1. A part whose query fails should fail the stream instead of ending it early")
+    void test1() {
+        //GIVEN
+        var spliterator = new IdRangeSpliterator<>(Book.class, null, new Cache(), failingQueries(false), 1, 100, 100, 10);
+
+        //WHEN
+        var stream = StreamSupport.stream(spliterator, true);
+
+        //THEN
+        var exception = assertThrows(OrmQueryException.class, stream::toList);
+        assertInstanceOf(SQLException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("2. A count that fails while splitting should fail the stream")
+    void test2() {
+        //GIVEN
+        var spliterator = new IdRangeSpliterator<>(Book.class, null, new Cache(), failingQueries(true), 1, 100, 100, 10);
+
+        //WHEN
+        var exception = assertThrows(OrmQueryException.class, spliterator::trySplit);
+
+        //THEN
+        assertInstanceOf(SQLException.class, exception.getCause());
+    }
+
+    private static IdRangeSpliterator.RangeQueries failingQueries(boolean failCount) {
+        return new IdRangeSpliterator.RangeQueries() {
+            @Override
+            public long count(long fromId, long toId) throws SQLException {
+                if (failCount) {
+                    throw new SQLException("connection is not available");
+                }
+                return toId - fromId + 1;
+            }
+
+            @Override
+            public StreamingQuery open(long fromId, long toId) throws SQLException {
+                throw new SQLException("connection is not available, request timed out");
+            }
+        };
+    }
+}
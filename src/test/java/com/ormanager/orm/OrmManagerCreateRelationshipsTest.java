@@ -25,7 +25,8 @@ class OrmManagerCreateRelationshipsTest {
     }
 
     @AfterAll
-    static void cleanMemory() {
+    static void cleanMemory() throws SQLException {
+        manager.close();
         testClassBook = null;
         testClassPublisher = null;
     }
@@ -29,9 +29,10 @@ class OrmManagerDeleteTest {
     }
 
     @AfterEach
-    void tearDown() {
+    void tearDown() throws SQLException {
         testable.dropEntity(Book.class);
         testable.dropEntity(Publisher.class);
+        ((OrmManager) testable).close();
     }
 
     @Test
@@ -114,4 +115,53 @@ class OrmManagerDeleteTest {
                 () -> assertThrows(NoSuchElementException.class, () -> testable.findById(publisher.getId(), Book.class))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenSavedBooks_whenDeletedByIdsInSeveralChunks_shouldBeRemovedFromDbAndCache() {
+
+        // given
+        ((OrmManager) testable).setBatchSize(2);
+        var books = List.of(new Book("book 1", LocalDate.now()), new Book("book 2", LocalDate.now()),
+                new Book("book 3", LocalDate.now()), new Book("kept", LocalDate.now()));
+        testable.saveAll(books);
+        var ids = books.subList(0, 3).stream().map(Book::getId).toList();
+
+        // when
+        int deleted = testable.deleteByIds(Book.class, ids);
+
+        // then
+        assertAll(
+                () -> assertEquals(3, deleted),
+                () -> assertEquals(List.of("kept"), testable.findAll(Book.class).stream().map(Book::getTitle).toList()),
+                () -> assertTrue(ids.stream().noneMatch(id -> testable.getOrmCache().isRecordInCache(id, Book.class))),
+                () -> assertNull(books.get(0).getId())
+        );
+    }
+
+    @Test
+    void givenSavedPublishersWithBooks_whenAllPublishersAreDeleted_shouldRemoveCascadedBooksFromCache() {
+
+        // given
+        Publisher first = new Publisher("first");
+        Publisher second = new Publisher("second");
+        Book book1 = new Book("book example 1", LocalDate.now());
+        Book book2 = new Book("book example 2", LocalDate.now());
+        first.setBooks(List.of(book1));
+        second.setBooks(List.of(book2));
+        testable.saveAll(List.of(first, second));
+        Long book1Id = book1.getId();
+
+        // when
+        int deleted = testable.deleteAll(List.of(first, second));
+
+        // then
+        assertAll(
+                () -> assertEquals(2, deleted),
+                () -> assertNull(first.getId()),
+                () -> assertNull(book2.getId()),
+                () -> assertFalse(testable.getOrmCache().isRecordInCache(book1Id, Book.class)),
+                () -> assertTrue(testable.findAll(Book.class).isEmpty()),
+                () -> assertTrue(testable.findAll(Publisher.class).isEmpty())
+        );
+    }
+}
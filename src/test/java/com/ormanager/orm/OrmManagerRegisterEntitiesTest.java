@@ -22,7 +22,8 @@ class OrmManagerRegisterEntitiesTest {
     }
 
     @AfterAll
-    static void cleanMemory() {
+    static void cleanMemory() throws SQLException {
+        manager.close();
         testClassBook = null;
     }
 
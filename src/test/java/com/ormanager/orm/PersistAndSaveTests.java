@@ -4,6 +4,7 @@ import com.ormanager.client.entity.Book;
 import com.ormanager.client.entity.Publisher;
 import com.ormanager.jdbc.ConnectionToDB;
 import com.ormanager.orm.exception.IdAlreadySetException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,6 +13,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +33,11 @@ class PersistAndSaveTests {
         ormManager.createRelationships(entityClassesAsArray);
     }
 
+    @AfterEach
+    void tearDown() throws SQLException {
+        ((OrmManager) ormManager).close();
+    }
+
     @Test
     void givenObjectWithIdAlreadySetWhenPersistingThenThrowsIdAlreadySetException() {
         //GIVEN
@@ -220,4 +227,82 @@ class PersistAndSaveTests {
                 ));
 
     }
+
+    @Test
+    void givenBooksWhenSavingAllInBatchesThenEveryBookGetsItsGeneratedId() {
+        //GIVEN
+        ((OrmManager) ormManager).setBatchSize(2);
+        var books = List.of(new Book("first", LocalDate.now()), new Book("second", LocalDate.now()),
+                new Book("third", LocalDate.now()));
+
+        //WHEN
+        ormManager.saveAll(books);
+
+        //THEN
+        assertAll(
+                () -> assertTrue(books.stream().allMatch(book -> book.getId() != null)),
+                () -> assertEquals(3, books.stream().map(Book::getId).distinct().count()),
+                () -> assertEquals("third", ormManager.findAll(Book.class).stream()
+                        .filter(book -> book.getId().equals(books.get(2).getId()))
+                        .findFirst().orElseThrow().getTitle()),
+                () -> assertEquals(3, ormManager.getOrmCache().count(Book.class))
+        );
+    }
+
+    @Test
+    void givenObjectWithIdAlreadySetWhenPersistingAllThenNothingIsInserted() {
+        //GIVEN
+        Publisher publisherWithId = (Publisher) ormManager.save(new Publisher("Test"));
+        var publishers = List.of(new Publisher("new"), publisherWithId);
+
+        //THEN
+        assertThrows(IdAlreadySetException.class, () -> ormManager.persistAll(publishers));
+        assertEquals(1, ormManager.findAll(Publisher.class).size());
+    }
+
+    @Test
+    void givenPublisherWithNewAndExistingBooksWhenSavingThenBooksAreInsertedAndUpdatedInBatches() {
+        //GIVEN
+        Book existingBook = (Book) ormManager.save(new Book("existing", LocalDate.now()));
+        existingBook.setTitle("updated");
+        Publisher publisher = new Publisher("Batch");
+        publisher.setBooks(List.of(existingBook, new Book("new 1", LocalDate.now()), new Book("new 2", LocalDate.now())));
+        var statementCache = ((OrmManager) ormManager).getStatementCache();
+        var preparedBefore = statementCache.getHitCount() + statementCache.getMissCount();
+
+        //WHEN
+        ormManager.save(publisher);
+        var preparedDuringSave = statementCache.getHitCount() + statementCache.getMissCount() - preparedBefore;
+        var booksInDb = ormManager.findAll(Book.class);
+
+        //THEN
+        assertAll(
+                () -> assertTrue(publisher.getBooks().stream().allMatch(book -> book.getId() != null)),
+                () -> assertTrue(publisher.getBooks().stream().allMatch(book -> book.getPublisher() == publisher)),
+                () -> assertEquals(3, booksInDb.size()),
+                () -> assertEquals("updated", ormManager.findById(existingBook.getId(), Book.class).orElseThrow().getTitle()),
+                () -> assertTrue(preparedDuringSave <= 5, "statements prepared: " + preparedDuringSave)
+        );
+    }
+
+    @Test
+    void givenUpsertModeWhenSavingBooksWithIdsThenExistingRowsAreUpdatedAndMissingRowsInserted() {
+        //GIVEN
+        var orm = (OrmManager) ormManager;
+        Book existingBook = (Book) orm.save(new Book("existing", LocalDate.now()));
+        existingBook.setTitle("upserted");
+        Book missingBook = new Book(1000L, "missing", LocalDate.now(), null);
+        orm.setUpsertEnabled(true);
+
+        //WHEN
+        orm.saveAll(List.of(existingBook, missingBook));
+        orm.getOrmCache().clearCache();
+
+        //THEN
+        assertAll(
+                () -> assertEquals(2, orm.findAll(Book.class).size()),
+                () -> assertEquals("upserted", orm.findById(existingBook.getId(), Book.class).orElseThrow().getTitle()),
+                () -> assertEquals("missing", orm.findById(1000L, Book.class).orElseThrow().getTitle())
+        );
+    }
 }
@@ -0,0 +1,84 @@
+package com.ormanager.orm;
+
+import com.ormanager.jdbc.ConnectionToDB;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreparedStatementCacheTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ConnectionToDB.setFileName("src/test/resources/application_test.properties");
+        connection = ConnectionToDB.getConnection();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("1. Same SQL and generated-keys flag should reuse the statement")
+    void test1() throws SQLException {
+        //GIVEN
+        var cache = new PreparedStatementCache(connection);
+
+        //WHEN
+        var first = cache.prepare("SELECT ?");
+        first.setInt(1, 1);
+        var second = cache.prepare("SELECT ?");
+        var withKeys = cache.prepare("SELECT ?", true);
+
+        //THEN
+        assertSame(first, second);
+        assertNotSame(first, withKeys);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertThrows(SQLException.class, second::executeQuery, "parameters should be cleared on reuse");
+    }
+
+    @Test
+    @DisplayName("2. Least recently used statement should be evicted and closed")
+    void test2() throws SQLException {
+        //GIVEN
+        var cache = new PreparedStatementCache(connection, 2);
+        var first = cache.prepare("SELECT 1");
+        cache.prepare("SELECT 2");
+        cache.prepare("SELECT 1");
+
+        //WHEN
+        var evicted = cache.prepare("SELECT 2");
+        cache.prepare("SELECT 3");
+
+        //THEN
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertTrue(first.isClosed());
+        assertFalse(evicted.isClosed());
+    }
+
+    @Test
+    @DisplayName("3. Closing the cache should close all statements and reject new ones")
+    void test3() throws SQLException {
+        //GIVEN
+        var cache = new PreparedStatementCache(connection);
+        var statement = cache.prepare("SELECT 1");
+
+        //WHEN
+        cache.close();
+
+        //THEN
+        assertTrue(statement.isClosed());
+        assertEquals(0, cache.size());
+        assertThrows(SQLException.class, () -> cache.prepare("SELECT 1"));
+    }
+}
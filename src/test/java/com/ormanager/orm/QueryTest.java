@@ -0,0 +1,120 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.ormanager.orm.Query.Operator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTest {
+    private static OrmManager ormManager;
+
+    @BeforeAll
+    static void openManager() throws SQLException {
+        ormManager = OrmManager.withPropertiesFrom("src/test/resources/application_test.properties");
+    }
+
+    @AfterAll
+    static void closeManager() throws SQLException {
+        ormManager.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException, NoSuchFieldException {
+        ormManager.getOrmCache().clearCache();
+        ormManager.dropEntity(Book.class);
+        ormManager.dropEntity(Publisher.class);
+        ormManager.register(Publisher.class, Book.class);
+        ormManager.createRelationships(Publisher.class, Book.class);
+    }
+
+    @Test
+    @DisplayName("1. Conditions, ordering and limit should be applied by the database")
+    void test1() {
+        //GIVEN
+        var today = LocalDate.now();
+        ormManager.save(new Book("old", today.minusYears(10)));
+        ormManager.save(new Book("recent b", today.minusDays(1)));
+        ormManager.save(new Book("recent a", today.minusDays(2)));
+        ormManager.save(new Book("recent c", today));
+
+        //WHEN
+        var books = ormManager.query(Book.class)
+                .where("published_at", GT, today.minusYears(1))
+                .where("title", LIKE, "recent%")
+                .orderByDescending("title")
+                .limit(2)
+                .list();
+
+        //THEN
+        assertEquals(List.of("recent c", "recent b"), books.stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("2. Field names, parent entities and IN lists should be bound as parameters")
+    void test2() throws SQLException {
+        //GIVEN
+        var publisher = (Publisher) ormManager.save(new Publisher("queried"));
+        var books = new Book[3];
+        for (int i = 0; i < books.length; i++) {
+            books[i] = new Book("book " + i, LocalDate.now());
+            books[i].setPublisher(publisher);
+            ormManager.save(books[i]);
+        }
+        ormManager.save(new Book("no publisher", LocalDate.now()));
+
+        //WHEN
+        var ofPublisher = ormManager.query(Book.class).where("publisher", EQ, publisher).orderBy("id").list();
+        List<Book> byIds;
+        try (var stream = ormManager.query(Book.class)
+                .where("id", IN, List.of(books[0].getId(), books[2].getId(), -1L))
+                .stream()) {
+            byIds = stream.toList();
+        }
+        var withoutPublisher = ormManager.query(Book.class).where("publisher_id", IS_NULL).list();
+
+        //THEN
+        assertEquals(3, ofPublisher.size());
+        assertEquals(2, byIds.size());
+        assertEquals("no publisher", withoutPublisher.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("3. Queries of the same shape should share one SQL template")
+    void test3() {
+        //GIVEN
+        ormManager.save(new Book("shape", LocalDate.now()));
+        var templates = ormManager.getSqlTemplateCache();
+        ormManager.query(Book.class).where("title", EQ, "first").list();
+        var size = templates.size();
+
+        //WHEN
+        var found = ormManager.query(Book.class).where("title", EQ, "shape").list();
+
+        //THEN
+        assertEquals(size, templates.size());
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    @DisplayName("4. Unknown columns and null comparisons should be rejected")
+    void test4() {
+        //GIVEN
+        var query = ormManager.query(Book.class);
+
+        //THEN
+        assertThrows(OrmFieldTypeException.class, () -> query.where("isbn", EQ, "1"));
+        assertThrows(IllegalArgumentException.class, () -> query.where("title", EQ, null));
+        assertThrows(IllegalArgumentException.class, () -> query.where("id", IN, List.of()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.ormanager.orm.SqlTemplateCache.Operation.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTemplateCacheTest {
+
+    @Test
+    @DisplayName("1. Template should be built once and then served from cache")
+    void test1() {
+        //GIVEN
+        var cache = new SqlTemplateCache();
+
+        //WHEN
+        var first = cache.get(Book.class, INSERT);
+        var second = cache.get(Book.class, INSERT);
+        cache.get(Book.class, INSERT);
+
+        //THEN
+        assertSame(first, second);
+        assertEquals("INSERT INTO books(title,published_at,publisher_id) VALUES(?,?,?);", first);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getHitCount(Book.class, INSERT));
+    }
+
+    @Test
+    @DisplayName("2. Templates should be kept per entity class and operation")
+    void test2() {
+        //GIVEN
+        var cache = new SqlTemplateCache();
+
+        //WHEN
+        var selectById = cache.get(Publisher.class, SELECT_BY_ID);
+        var deleteById = cache.get(Publisher.class, DELETE_BY_ID);
+        var countById = cache.get(Book.class, COUNT_BY_ID);
+
+        //THEN
+        assertEquals("SELECT id, name FROM publishers WHERE id = ?", selectById);
+        assertEquals("DELETE FROM publishers WHERE id = ?", deleteById);
+        assertEquals("SELECT count(*) FROM books WHERE id = ?", countById);
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("3. Children select should filter by the foreign key of the given parent")
+    void test3() {
+        //GIVEN
+        var cache = new SqlTemplateCache();
+
+        //WHEN
+        var sql = cache.get(Book.class, SELECT_BY_PARENT, Publisher.class);
+
+        //THEN
+        assertEquals("SELECT id, title, published_at, publisher_id FROM books WHERE publisher_id = ?", sql);
+    }
+
+    @Test
+    @DisplayName("4. Upsert template should come from the dialect and be rebuilt when the dialect changes")
+    void test4() {
+        //GIVEN
+        var cache = new SqlTemplateCache();
+
+        //WHEN
+        var mySql = cache.get(Book.class, UPSERT, 2);
+        cache.setDialect((metadata, rowCount) -> "UPSERT " + metadata.getTableName() + " " + rowCount);
+        var custom = cache.get(Book.class, UPSERT, 2);
+
+        //THEN
+        assertEquals("INSERT INTO books(id,title,published_at,publisher_id) VALUES (?,?,?,?), (?,?,?,?)"
+                + " ON DUPLICATE KEY UPDATE title = VALUES(title), published_at = VALUES(published_at),"
+                + " publisher_id = COALESCE(VALUES(publisher_id), publisher_id)", mySql);
+        assertEquals("UPSERT books 2", custom);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ormanager.orm;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitOfWorkTest {
+    private static OrmManager ormManager;
+
+    @BeforeAll
+    static void openManager() throws SQLException {
+        ormManager = OrmManager.withPropertiesFrom("src/test/resources/application_test.properties");
+    }
+
+    @AfterAll
+    static void closeManager() throws SQLException {
+        ormManager.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException, NoSuchFieldException {
+        ormManager.getOrmCache().clearCache();
+        ormManager.dropEntity(Book.class);
+        ormManager.dropEntity(Publisher.class);
+        ormManager.register(Publisher.class, Book.class);
+        ormManager.createRelationships(Publisher.class, Book.class);
+    }
+
+    @Test
+    @DisplayName("1. Commit should insert referenced entities first, whatever the registration order")
+    void test1() throws SQLException {
+        //GIVEN
+        var publisher = new Publisher("Unit of work");
+        var book = new Book("registered first", LocalDate.now());
+        book.setPublisher(publisher);
+
+        var unitOfWork = ormManager.beginUnitOfWork();
+
+        //WHEN
+        unitOfWork.registerNew(book);
+        unitOfWork.registerNew(publisher);
+        unitOfWork.commit();
+        ormManager.getOrmCache().clearCache();
+
+        //THEN
+        assertFalse(unitOfWork.isActive());
+        assertNotNull(publisher.getId());
+        assertNotNull(book.getId());
+        assertEquals(1, ormManager.findAll(Book.class).size());
+    }
+
+    @Test
+    @DisplayName("2. Closing without commit should roll back flushed changes")
+    void test2() throws SQLException {
+        //GIVEN
+        var publisher = (Publisher) ormManager.save(new Publisher("kept"));
+
+        //WHEN
+        try (var unitOfWork = ormManager.beginUnitOfWork()) {
+            unitOfWork.registerNew(new Publisher("rolled back"));
+            unitOfWork.registerRemoved(publisher);
+            unitOfWork.flush();
+            assertFalse(unitOfWork.hasPendingChanges());
+        }
+
+        //THEN
+        assertEquals(1, ormManager.findAll(Publisher.class).size());
+        assertEquals("kept", ormManager.findAll(Publisher.class).get(0).getName());
+    }
+
+    @Test
+    @DisplayName("3. Only one unit of work should be open per manager")
+    void test3() throws SQLException {
+        try (var unitOfWork = ormManager.beginUnitOfWork()) {
+            assertThrows(IllegalStateException.class, ormManager::beginUnitOfWork);
+        }
+        ormManager.beginUnitOfWork().rollback();
+    }
+
+    @Test
+    @DisplayName("4. The manager should keep working while a stream opened in a unit of work is read")
+    void test4() throws SQLException {
+        //GIVEN
+        var publisher = (Publisher) ormManager.save(new Publisher("read during stream"));
+        for (int i = 0; i < 3; i++) {
+            ormManager.save(new Book("streamed " + i, LocalDate.now()));
+        }
+        ormManager.getOrmCache().clearCache();
+
+        try (var unitOfWork = ormManager.beginUnitOfWork();
+             var stream = ormManager.findAllAsStream(Book.class)) {
+            var books = stream.iterator();
+
+            //WHEN
+            var first = books.next();
+            var found = ormManager.findById(publisher.getId(), Publisher.class);
+            var rest = 0;
+            while (books.hasNext()) {
+                books.next();
+                rest++;
+            }
+
+            //THEN
+            assertEquals("streamed 0", first.getTitle());
+            assertEquals("read during stream", found.orElseThrow().getName());
+            assertEquals(2, rest);
+        }
+    }
+
+    @Test
+    @DisplayName("5. A stream opened in a unit of work should batch fetch the parents of every row")
+    void test5() throws SQLException {
+        //GIVEN
+        for (var publisherName : List.of("First", "Second")) {
+            var publisher = (Publisher) ormManager.save(new Publisher(publisherName));
+            for (int i = 0; i < 3; i++) {
+                var book = new Book(publisherName + " book " + i, LocalDate.now());
+                book.setPublisher(publisher);
+                ormManager.save(book);
+            }
+        }
+        ormManager.getOrmCache().clearCache();
+        ormManager.setBatchSize(2);
+        ormManager.setParentBatchFetchEnabled(true);
+
+        try (var unitOfWork = ormManager.beginUnitOfWork();
+             var stream = ormManager.findAllAsStream(Book.class)) {
+            //WHEN
+            var books = stream.toList();
+
+            //THEN
+            assertEquals(6, books.size());
+            assertEquals("First", books.get(0).getPublisher().getName());
+            assertEquals("Second", books.get(5).getPublisher().getName());
+        } finally {
+            ormManager.setParentBatchFetchEnabled(false);
+            ormManager.setBatchSize(OrmManager.DEFAULT_BATCH_SIZE);
+        }
+    }
+}
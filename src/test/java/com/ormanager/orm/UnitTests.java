@@ -6,6 +6,7 @@ import com.ormanager.jdbc.ConnectionToDB;
 import com.ormanager.orm.exception.OrmFieldTypeException;
 import com.ormanager.orm.test_entities.AllFieldsClass;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,13 +15,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.ormanager.orm.OrmManagerUtil.getSqlTypeForField;
+import static com.ormanager.orm.Query.Operator.EQ;
 import static com.ormanager.orm.mapper.ObjectMapper.mapperToList;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +50,11 @@ class UnitTests {
         ormManager.createRelationships(entityClassesAsArray);
     }
 
+    @AfterEach
+    void tearDown() throws SQLException {
+        ((OrmManager) ormManager).close();
+    }
+
     @Test
     void getSqlTypeForField_ShouldReturnOrmFieldTypeException() throws NoSuchFieldException {
         //GIVEN
@@ -136,6 +149,113 @@ class UnitTests {
         assertEquals(1, list.size());
     }
 
+    @Test
+    void whenUsingFindAllAsStream_ManagerShouldStayUsableUntilStreamIsClosed() throws Exception {
+        //GIVEN
+        ormManager.save(new Publisher("streamedPublisher1"));
+        ormManager.save(new Publisher("streamedPublisher2"));
+        ormManager.getOrmCache().clearCache();
+        var closed = new AtomicBoolean();
+        int foundWhileStreaming;
+
+        //WHEN
+        try (var stream = ormManager.findAllAsStream(Publisher.class).onClose(() -> closed.set(true))) {
+            stream.iterator().next();
+            foundWhileStreaming = ormManager.findAll(Publisher.class).size();
+        }
+
+        //THEN
+        assertTrue(foundWhileStreaming >= 2);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void whenUsingFindAllAsParallelStream_ShouldSplitByIdRangeAndReadEveryRow() throws Exception {
+        //GIVEN
+        var publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 100; i++) {
+            publishers.add(new Publisher("parallelPublisher" + i));
+        }
+        ormManager.saveAll(publishers);
+        ormManager.getOrmCache().clearCache();
+        ((OrmManager) ormManager).setBatchSize(10);
+        long lowerSize;
+        long upperSize;
+        long distinctNames;
+
+        //WHEN
+        try (var stream = ormManager.findAllAsParallelStream(Publisher.class)) {
+            var spliterator = stream.spliterator();
+            var lower = spliterator.trySplit();
+            lowerSize = lower.estimateSize();
+            upperSize = spliterator.estimateSize();
+        }
+        try (var stream = ormManager.findAllAsParallelStream(Publisher.class)) {
+            distinctNames = stream.map(Publisher::getName).distinct().count();
+        }
+
+        //THEN
+        assertEquals(100, lowerSize + upperSize);
+        assertTrue(lowerSize > 0 && upperSize > 0);
+        assertEquals(100, distinctNames);
+    }
+
+    @Test
+    void givenRowsAreDeletedAfterParallelStreamIsCreated_thenToArrayShouldReturnTheRemainingRows() throws Exception {
+        //GIVEN
+        var publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 100; i++) {
+            publishers.add(new Publisher("shrinkingPublisher" + i));
+        }
+        ormManager.saveAll(publishers);
+        var deletedIds = publishers.subList(40, 45).stream().map(Publisher::getId).toList();
+        ormManager.getOrmCache().clearCache();
+        ((OrmManager) ormManager).setBatchSize(10);
+        Object[] read;
+
+        //WHEN
+        try (var stream = ormManager.findAllAsParallelStream(Publisher.class)) {
+            ormManager.deleteByIds(Publisher.class, deletedIds);
+            read = stream.toArray();
+        }
+
+        //THEN
+        assertEquals(95, read.length);
+    }
+
+    @Test
+    void givenConcurrentQueries_thenEachShouldReadItsOwnRows() throws Exception {
+        //GIVEN
+        for (int i = 0; i < 8; i++) {
+            ormManager.save(new Book("concurrent " + i, LocalDate.now()));
+        }
+        var pool = Executors.newFixedThreadPool(8);
+        var results = new ArrayList<Future<Boolean>>();
+
+        //WHEN
+        try {
+            for (int i = 0; i < 8; i++) {
+                var title = "concurrent " + i;
+                results.add(pool.submit(() -> {
+                    for (int run = 0; run < 200; run++) {
+                        var found = ormManager.query(Book.class).where("title", EQ, title).list();
+                        if (found.size() != 1 || !title.equals(found.get(0).getTitle())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            //THEN
+            for (var result : results) {
+                assertTrue(result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     @Test
     void findById_ShouldReturnPublisherFromDatabaseByGivenId() {
         //GIVEN
@@ -355,6 +475,83 @@ class UnitTests {
         assertEquals(publisher.getId(), book1.getPublisher().getId());
     }
 
+    @Test
+    void givenPublisherWithManyBooks_whenUpdatePublisher_thenBooksShouldBeLoadedByOneQuery() {
+        //GIVEN
+        Publisher publisher = new Publisher("Many books");
+        for (int i = 0; i < 200; i++) {
+            Book book = new Book("Book " + i, LocalDate.now());
+            book.setPublisher(publisher);
+            publisher.getBooks().add(book);
+        }
+        ormManager.save(publisher);
+        var statementCache = ((OrmManager) ormManager).getStatementCache();
+        var preparedBefore = statementCache.getHitCount() + statementCache.getMissCount();
+
+        //WHEN
+        Publisher refreshed = (Publisher) ormManager.update(publisher);
+
+        //THEN
+        assertEquals(2, statementCache.getHitCount() + statementCache.getMissCount() - preparedBefore);
+        assertEquals(200, refreshed.getBooks().size());
+        assertTrue(refreshed.getBooks().stream().allMatch(book -> book.getPublisher() == refreshed));
+    }
+
+    @Test
+    void givenLazyLoadingIsEnabled_whenFindPublisher_thenBooksShouldBeCountedAndLoadedOnAccess() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        Publisher publisher = new Publisher("Lazy");
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book("Lazy book " + i, LocalDate.now());
+            book.setPublisher(publisher);
+            publisher.getBooks().add(book);
+        }
+        ormManager.save(publisher);
+        ormManager.getOrmCache().clearCache();
+        manager.setLazyLoadingEnabled(true);
+
+        //WHEN
+        var books = (LazyList<Book>) ormManager.findById(publisher.getId(), Publisher.class).orElseThrow().getBooks();
+        var size = books.size();
+        var loadedBySize = books.isLoaded();
+        var firstTitle = books.get(0).getTitle();
+
+        //THEN
+        assertEquals(3, size);
+        assertFalse(loadedBySize);
+        assertTrue(books.isLoaded());
+        assertEquals("Lazy book 0", firstTitle);
+    }
+
+    @Test
+    void givenParentBatchFetchIsEnabled_whenFindBooks_thenPublishersShouldBeLoadedByOneQuery() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        var bookIds = new ArrayList<Long>();
+        for (var publisherName : List.of("First", "Second")) {
+            Publisher publisher = (Publisher) ormManager.save(new Publisher(publisherName));
+            for (int i = 0; i < 3; i++) {
+                Book book = new Book(publisherName + " book " + i, LocalDate.now());
+                book.setPublisher(publisher);
+                bookIds.add(((Book) ormManager.save(book)).getId());
+            }
+        }
+        ormManager.getOrmCache().clearCache();
+        manager.setParentBatchFetchEnabled(true);
+        var statementCache = manager.getStatementCache();
+        var preparedBefore = statementCache.getHitCount() + statementCache.getMissCount();
+
+        //WHEN
+        var books = ormManager.findAllById(bookIds, Book.class);
+
+        //THEN
+        assertEquals(2, statementCache.getHitCount() + statementCache.getMissCount() - preparedBefore);
+        assertEquals(6, books.size());
+        assertEquals("First", books.get(0).getPublisher().getName());
+        assertSame(books.get(3).getPublisher(), books.get(5).getPublisher());
+    }
+
     @Test
     void givenPublisherIsMerged_thenAssertResultAndName() {
         //GIVEN
@@ -392,6 +589,205 @@ class UnitTests {
         assertEquals(title, mergedTitle);
     }
 
+    @Test
+    void givenBooksAreMerged_thenUpdateStatementShouldBeReused() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        Book first = (Book) ormManager.save(new Book("first", LocalDate.now()));
+        Book second = (Book) ormManager.save(new Book("second", LocalDate.now()));
+        var misses = manager.getStatementCache().getMissCount();
+
+        //WHEN
+        first.setTitle("first merged");
+        second.setTitle("second merged");
+        ormManager.merge(first);
+        ormManager.merge(second);
+
+        //THEN
+        assertEquals(misses + 1, manager.getStatementCache().getMissCount());
+        assertEquals("second merged", ormManager.findById(second.getId(), Book.class).get().getTitle());
+    }
+
+    @Test
+    void givenNewAndManagedBooksAreSaved_thenNoExistenceCheckShouldRun() {
+        //GIVEN
+        var statementCache = ((OrmManager) ormManager).getStatementCache();
+        Book book = new Book("state", LocalDate.now());
+        var transientState = ((OrmManager) ormManager).getEntityState(book);
+        var statementsBefore = statementCache.getHitCount() + statementCache.getMissCount();
+
+        //WHEN
+        ormManager.save(book);
+        book.setTitle("state updated");
+        ormManager.save(book);
+        var statementsForTwoSaves = statementCache.getHitCount() + statementCache.getMissCount() - statementsBefore;
+
+        //THEN
+        assertEquals(EntityState.TRANSIENT, transientState);
+        assertEquals(EntityState.MANAGED, ((OrmManager) ormManager).getEntityState(book));
+        assertEquals(2, statementsForTwoSaves);
+        assertEquals(EntityState.DETACHED, ((OrmManager) ormManager).getEntityState(new Book(book.getId(), "copy", LocalDate.now(), null)));
+    }
+
+    @Test
+    void givenManagedBookIsDeleted_thenItShouldBeRemoved() {
+        //GIVEN
+        Book book = (Book) ormManager.save(new Book("removed", LocalDate.now()));
+
+        //WHEN
+        ormManager.delete(book);
+
+        //THEN
+        assertEquals(EntityState.REMOVED, ((OrmManager) ormManager).getEntityState(book));
+    }
+
+    @Test
+    void givenIdsOfCachedAndStoredBooks_thenFindAllByIdShouldReturnThemInInputOrder() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        var books = List.of(new Book("first", LocalDate.now()), new Book("second", LocalDate.now()),
+                new Book("third", LocalDate.now()));
+        ormManager.saveAll(books);
+        ormManager.getOrmCache().clearCache();
+        Book cached = ormManager.findById(books.get(1).getId(), Book.class).orElseThrow();
+        var misses = manager.getStatementCache().getMissCount();
+        var hits = manager.getStatementCache().getHitCount();
+
+        //WHEN
+        var found = ormManager.findAllById(List.of(books.get(2).getId(), books.get(0).getId(), -1L, books.get(1).getId()), Book.class);
+
+        //THEN
+        assertEquals(List.of("third", "first", "second"), found.stream().map(Book::getTitle).toList());
+        assertSame(cached, found.get(2));
+        assertEquals(1, manager.getStatementCache().getMissCount() - misses + manager.getStatementCache().getHitCount() - hits);
+    }
+
+    @Test
+    void givenManagerCreatedItsPool_thenCloseShouldCloseThePool() throws SQLException {
+        //GIVEN
+        var manager = OrmManager.withPropertiesFrom("src/test/resources/application_test.properties");
+
+        //WHEN
+        manager.close();
+
+        //THEN
+        assertThrows(SQLException.class, () -> manager.findAllAsStream(Book.class));
+    }
+
+    @Test
+    void givenDataSourceIsPassedIn_thenCloseShouldLeaveItOpen() throws SQLException {
+        //GIVEN
+        ConnectionToDB.setFileName("src/test/resources/application_test.properties");
+
+        try (var dataSource = ConnectionToDB.getDataSource()) {
+            var manager = OrmManager.withDataSource(dataSource);
+
+            //WHEN
+            manager.close();
+
+            //THEN
+            assertFalse(dataSource.isClosed());
+            try (var connection = dataSource.getConnection()) {
+                assertTrue(connection.isValid(1));
+            }
+        }
+    }
+
+    @Test
+    void givenIntegerIdsOfLongIdBooks_thenFindAllByIdShouldReturnThem() {
+        //GIVEN
+        var books = List.of(new Book("first", LocalDate.now()), new Book("second", LocalDate.now()));
+        ormManager.saveAll(books);
+        Book cached = books.get(1);
+        var first = books.get(0).getId().intValue();
+        var second = books.get(1).getId().intValue();
+        ormManager.getOrmCache().deleteFromCache(books.get(0));
+
+        //WHEN
+        var found = ormManager.findAllById(List.of(second, first), Book.class);
+
+        //THEN
+        assertEquals(List.of("second", "first"), found.stream().map(Book::getTitle).toList());
+        assertSame(cached, found.get(0));
+    }
+
+    @Test
+    void givenLoadCoalescingIsEnabled_thenFindByIdShouldLoadThroughTheLoader() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        Book book = (Book) ormManager.save(new Book("coalesced", LocalDate.now()));
+        ormManager.getOrmCache().clearCache();
+        manager.enableLoadCoalescing(Duration.ofMillis(1), 50);
+
+        //WHEN
+        var found = ormManager.findById(book.getId().intValue(), Book.class);
+        var missing = ormManager.findById(-1L, Book.class);
+
+        //THEN
+        assertEquals("coalesced", found.orElseThrow().getTitle());
+        assertTrue(missing.isEmpty());
+        assertEquals(2, manager.getCoalescingLoader().orElseThrow().getBatchCount());
+    }
+
+    @Test
+    void givenUnchangedBookIsMerged_thenUpdateShouldBeSkipped() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        Book book = (Book) ormManager.save(new Book("unchanged", LocalDate.now()));
+        var skipped = manager.getSkippedUpdateCount();
+
+        //WHEN
+        var merged = ormManager.merge(book);
+
+        //THEN
+        assertTrue(merged);
+        assertEquals(skipped + 1, manager.getSkippedUpdateCount());
+    }
+
+    @Test
+    void givenOnlyTitleIsChanged_thenOnlyTitleShouldBeUpdated() {
+        //GIVEN
+        var manager = (OrmManager) ormManager;
+        Book book = (Book) ormManager.save(new Book("before", LocalDate.of(2001, 1, 1)));
+        var partialUpdates = manager.getPartialUpdateCount();
+
+        //WHEN
+        book.setTitle("after");
+        ormManager.merge(book);
+        ormManager.getOrmCache().clearCache();
+        var bookFromDb = ormManager.findById(book.getId(), Book.class).orElseThrow();
+
+        //THEN
+        assertEquals(partialUpdates + 1, manager.getPartialUpdateCount());
+        assertEquals("after", bookFromDb.getTitle());
+        assertEquals(LocalDate.of(2001, 1, 1), bookFromDb.getPublishedAt());
+    }
+
+    @Test
+    void givenBookWithoutLoadedPublisherIsMerged_thenForeignKeyShouldBeKept() throws SQLException {
+        //GIVEN
+        Publisher publisher = (Publisher) ormManager.save(new Publisher("keptPublisher"));
+        Book book = new Book("kept", LocalDate.now());
+        book.setPublisher(publisher);
+        ormManager.save(book);
+
+        //WHEN
+        book.setPublisher(null);
+        book.setTitle("kept merged");
+        ormManager.merge(book);
+
+        //THEN
+        try (Connection connection = ConnectionToDB.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement("SELECT title, publisher_id FROM books WHERE id = ?")) {
+            preparedStatement.setLong(1, book.getId());
+            ResultSet resultSet = preparedStatement.executeQuery();
+            resultSet.next();
+
+            assertEquals("kept merged", resultSet.getString("title"));
+            assertEquals(publisher.getId(), resultSet.getLong("publisher_id"));
+        }
+    }
+
     @Test
     void givenPublisherGetBook_whenPublisherIsMerged_thenBookShouldBeSaved() {
         //GIVEN
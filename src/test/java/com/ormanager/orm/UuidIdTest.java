@@ -5,6 +5,7 @@ import com.ormanager.jdbc.ConnectionToDB;
 import com.ormanager.orm.test_entities.TestClassBookWithUuidId;
 import com.ormanager.orm.test_entities.TestClassPublisherWithUuidId;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -37,6 +38,11 @@ public class UuidIdTest {
         ormManager.createRelationships(classesToRegister);
     }
 
+    @AfterEach
+    void tearDown() throws SQLException {
+        ormManager.close();
+    }
+
     @Test
     void whenUsingFindAllAsIterableTest_ShouldBeLazyLoading_UUID_ID() throws Exception {
         //GIVEN
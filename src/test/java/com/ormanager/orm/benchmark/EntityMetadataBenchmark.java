@@ -0,0 +1,109 @@
+package com.ormanager.orm.benchmark;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.annotation.Column;
+import com.ormanager.orm.annotation.Id;
+import com.ormanager.orm.annotation.ManyToOne;
+import com.ormanager.orm.annotation.OneToMany;
+import com.ormanager.orm.annotation.Table;
+import com.ormanager.orm.metadata.EntityMetadataRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the per-call reflection scans that {@code OrmManagerUtil} used to run with lookups in
+ * {@link EntityMetadataRegistry}. Run {@link #main} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMetadataBenchmark {
+
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        var publisher = new Publisher(1L, "publisher");
+        book = new Book(1L, "title", LocalDate.of(2000, 1, 1), publisher);
+        EntityMetadataRegistry.register(Book.class, Publisher.class);
+    }
+
+    @Benchmark
+    public Serializable reflectionGetId() throws IllegalAccessException {
+        Field idField = Arrays.stream(book.getClass().getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(Id.class))
+                .findAny()
+                .orElseThrow();
+        idField.setAccessible(true);
+        return (Serializable) idField.get(book);
+    }
+
+    @Benchmark
+    public Serializable metadataGetId() {
+        return EntityMetadataRegistry.getMetadata(book.getClass()).getId(book);
+    }
+
+    @Benchmark
+    public String reflectionInsertStatement() {
+        List<String> columns = new ArrayList<>();
+        for (Field field : book.getClass().getDeclaredFields()) {
+            if (field.isAnnotationPresent(Column.class)) {
+                columns.add(field.getAnnotation(Column.class).name());
+            } else if (field.isAnnotationPresent(ManyToOne.class)) {
+                columns.add(field.getAnnotation(ManyToOne.class).columnName());
+            } else if (!Collection.class.isAssignableFrom(field.getType()) && !field.isAnnotationPresent(Id.class)) {
+                columns.add(field.getName());
+            }
+        }
+        var length = (int) Arrays.stream(book.getClass().getDeclaredFields())
+                .filter(field -> !field.isAnnotationPresent(Id.class))
+                .filter(field -> !field.isAnnotationPresent(OneToMany.class))
+                .count();
+        var questionMarks = IntStream.range(0, length)
+                .mapToObj(q -> "?")
+                .collect(Collectors.joining(","));
+
+        return "INSERT INTO " + book.getClass().getAnnotation(Table.class).name()
+                + "(" + String.join(",", columns) + ") VALUES(" + questionMarks + ");";
+    }
+
+    @Benchmark
+    public String metadataInsertStatement() {
+        return EntityMetadataRegistry.getMetadata(book.getClass()).getInsertSql();
+    }
+
+    @Benchmark
+    public boolean reflectionIsChild() {
+        return Arrays.stream(book.getClass().getDeclaredFields())
+                .anyMatch(field -> field.isAnnotationPresent(ManyToOne.class));
+    }
+
+    @Benchmark
+    public boolean metadataIsChild() {
+        return EntityMetadataRegistry.getMetadata(book.getClass()).isChild();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityMetadataBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
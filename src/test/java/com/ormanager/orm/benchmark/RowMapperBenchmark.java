@@ -0,0 +1,125 @@
+package com.ormanager.orm.benchmark;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.mapper.CompiledRowMapper;
+import com.ormanager.orm.mapper.ReflectiveRowMapper;
+import com.ormanager.orm.mapper.RowMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hydration throughput in rows per second for {@link CompiledRowMapper} against {@link ReflectiveRowMapper}.
+ * Rows come from an in-memory {@link CachedRowSet}, so only the mapping itself is measured.
+ * Run {@link #main} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final int ROWS = 1_000;
+
+    private CachedRowSet books;
+    private CachedRowSet publishers;
+    private RowMapper<Book> compiledBookMapper;
+    private RowMapper<Publisher> compiledPublisherMapper;
+    private RowMapper<Book> reflectiveBookMapper;
+    private RowMapper<Publisher> reflectivePublisherMapper;
+
+    @Setup
+    public void setUp() throws SQLException {
+        books = rowSet(new String[]{"id", "title", "published_at", "publisher_id"},
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.DATE, Types.BIGINT});
+        for (long i = 1; i <= ROWS; i++) {
+            books.moveToInsertRow();
+            books.updateLong(1, i);
+            books.updateString(2, "title " + i);
+            books.updateDate(3, Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(i)));
+            books.updateLong(4, i % 10);
+            books.insertRow();
+        }
+        books.moveToCurrentRow();
+
+        publishers = rowSet(new String[]{"id", "name"}, new int[]{Types.BIGINT, Types.VARCHAR});
+        for (long i = 1; i <= ROWS; i++) {
+            publishers.moveToInsertRow();
+            publishers.updateLong(1, i);
+            publishers.updateString(2, "publisher " + i);
+            publishers.insertRow();
+        }
+        publishers.moveToCurrentRow();
+
+        compiledBookMapper = CompiledRowMapper.forEntity(Book.class).bind(books);
+        compiledPublisherMapper = CompiledRowMapper.forEntity(Publisher.class).bind(publishers);
+        reflectiveBookMapper = new ReflectiveRowMapper<>(Book.class);
+        reflectivePublisherMapper = new ReflectiveRowMapper<>(Publisher.class);
+    }
+
+    private static CachedRowSet rowSet(String[] columns, int[] types) throws SQLException {
+        var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        var rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        return rowSet;
+    }
+
+    private static <T> void mapAll(ResultSet resultSet, RowMapper<T> rowMapper, Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(rowMapper.readId(resultSet));
+            blackhole.consume(rowMapper.mapRow(resultSet));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void compiledBooks(Blackhole blackhole) throws SQLException {
+        mapAll(books, compiledBookMapper, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void reflectiveBooks(Blackhole blackhole) throws SQLException {
+        mapAll(books, reflectiveBookMapper, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void compiledPublishers(Blackhole blackhole) throws SQLException {
+        mapAll(publishers, compiledPublisherMapper, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void reflectivePublishers(Blackhole blackhole) throws SQLException {
+        mapAll(publishers, reflectivePublisherMapper, blackhole);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RowMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
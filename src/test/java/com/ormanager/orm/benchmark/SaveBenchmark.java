@@ -0,0 +1,77 @@
+package com.ormanager.orm.benchmark;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.OrmManager;
+import com.ormanager.orm.PreparedStatementCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code save()} of new and of already managed books, reporting the statements sent per save next to the
+ * throughput. Needs the database from {@code src/test/resources/application_test.properties}.
+ * Run {@link #main} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+    private OrmManager ormManager;
+    private Book managedBook;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+    }
+
+    @Setup
+    public void setUp() throws SQLException, NoSuchFieldException {
+        ormManager = OrmManager.withPropertiesFrom("src/test/resources/application_test.properties");
+        ormManager.dropEntity(Book.class);
+        ormManager.dropEntity(Publisher.class);
+        ormManager.register(Publisher.class, Book.class);
+        ormManager.createRelationships(Publisher.class, Book.class);
+        managedBook = (Book) ormManager.save(new Book("managed", LocalDate.now()));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        ormManager.close();
+    }
+
+    @Benchmark
+    public Object saveNewBook(Statements statements) {
+        var before = prepared();
+        var saved = ormManager.save(new Book("new", LocalDate.now()));
+        statements.statements += prepared() - before;
+        return saved;
+    }
+
+    @Benchmark
+    public Object saveManagedBook(Statements statements) {
+        var before = prepared();
+        managedBook.setTitle(managedBook.getTitle().equals("managed") ? "changed" : "managed");
+        var saved = ormManager.save(managedBook);
+        statements.statements += prepared() - before;
+        return saved;
+    }
+
+    private long prepared() {
+        PreparedStatementCache statementCache = ormManager.getStatementCache();
+        return statementCache.getHitCount() + statementCache.getMissCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SaveBenchmark.class.getSimpleName()).build()).run();
+    }
+}
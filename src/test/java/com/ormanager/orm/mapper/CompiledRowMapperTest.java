@@ -0,0 +1,90 @@
+package com.ormanager.orm.mapper;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledRowMapperTest {
+
+    private static CachedRowSet bookRows(LocalDate publishedAt) throws SQLException {
+        var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(4);
+        String[] columns = {"publisher_id", "title", "id", "published_at"};
+        int[] types = {Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.DATE};
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        var rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        rowSet.moveToInsertRow();
+        rowSet.updateLong(1, 3L);
+        rowSet.updateString(2, "title");
+        rowSet.updateLong(3, 7L);
+        if (publishedAt == null) {
+            rowSet.updateNull(4);
+        } else {
+            rowSet.updateDate(4, Date.valueOf(publishedAt));
+        }
+        rowSet.insertRow();
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+
+    @Test
+    @DisplayName("1. Compiled mapper should hydrate the same entity as the reflective mapper")
+    void test1() throws SQLException {
+        //Given
+        var rowSet = bookRows(LocalDate.of(2000, 1, 1));
+        var compiled = CompiledRowMapper.forEntity(Book.class).bind(rowSet);
+        var reflective = new ReflectiveRowMapper<>(Book.class);
+
+        //When
+        rowSet.next();
+        var compiledBook = compiled.mapRow(rowSet);
+        var reflectiveBook = reflective.mapRow(rowSet);
+
+        //Then
+        assertAll(
+                () -> assertEquals(7L, compiled.readId(rowSet)),
+                () -> assertEquals(7L, compiledBook.getId()),
+                () -> assertEquals("title", compiledBook.getTitle()),
+                () -> assertEquals(LocalDate.of(2000, 1, 1), compiledBook.getPublishedAt()),
+                () -> assertEquals(reflectiveBook, compiledBook)
+        );
+    }
+
+    @Test
+    @DisplayName("2. Null date column should be hydrated as null")
+    void test2() throws SQLException {
+        //Given
+        var rowSet = bookRows(null);
+        var compiled = CompiledRowMapper.forEntity(Book.class).bind(rowSet);
+
+        //When
+        rowSet.next();
+        var book = compiled.mapRow(rowSet);
+
+        //Then
+        assertNull(book.getPublishedAt());
+    }
+
+    @Test
+    @DisplayName("3. Mapper template should be compiled once per entity class")
+    void test3() {
+        assertSame(CompiledRowMapper.forEntity(Publisher.class), CompiledRowMapper.forEntity(Publisher.class));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ormanager.orm.mapper;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.metadata.ColumnMetadata;
+import com.ormanager.orm.test_entities.AllFieldsClass;
+import com.ormanager.orm.test_entities.TestClassBookWithUuidId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import static com.ormanager.orm.metadata.EntityMetadataRegistry.getMetadata;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedMappersTest {
+
+    @Test
+    @DisplayName("1. Generated mappers should describe the same columns as the reflective metadata")
+    void test1() {
+        for (var entityClass : new Class<?>[]{Book.class, Publisher.class, TestClassBookWithUuidId.class, AllFieldsClass.class}) {
+            //When
+            var mapper = GeneratedMappers.find(entityClass).orElseThrow();
+            var metadata = getMetadata(entityClass);
+
+            //Then
+            assertEquals(metadata.getInsertSql(), mapper.getInsertSql());
+            assertEquals(metadata.getUpdateByIdSql(), mapper.getUpdateSql());
+            assertEquals(metadata.getIdColumnName(), mapper.getIdColumnName());
+            assertEquals(metadata.getColumns().stream().map(ColumnMetadata::getName).toList(), mapper.getColumnNames());
+        }
+    }
+
+    @Test
+    @DisplayName("2. Generated mapper should hydrate a row like the reflective mapper")
+    void test2() throws SQLException {
+        //Given
+        var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(3);
+        String[] columns = {"published_at", "id", "title"};
+        int[] types = {Types.DATE, Types.BIGINT, Types.VARCHAR};
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        var rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        rowSet.moveToInsertRow();
+        rowSet.updateDate(1, Date.valueOf(LocalDate.of(2000, 1, 1)));
+        rowSet.updateLong(2, 5L);
+        rowSet.updateString(3, "title");
+        rowSet.insertRow();
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+
+        var generated = GeneratedMappers.find(Book.class).orElseThrow().bind(rowSet);
+
+        //When
+        rowSet.next();
+        var book = generated.mapRow(rowSet);
+
+        //Then
+        assertEquals(5L, generated.readId(rowSet));
+        assertEquals(new ReflectiveRowMapper<>(Book.class).mapRow(rowSet), book);
+    }
+
+    @Test
+    @DisplayName("3. Classes without a generated mapper should fall back to reflection")
+    void test3() {
+        assertTrue(GeneratedMappers.find(String.class).isEmpty());
+    }
+}
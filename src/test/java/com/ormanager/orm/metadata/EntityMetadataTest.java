@@ -0,0 +1,106 @@
+package com.ormanager.orm.metadata;
+
+import com.ormanager.client.entity.Book;
+import com.ormanager.client.entity.Publisher;
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.test_entities.TestClassBookWithUuidId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityMetadataTest {
+
+    @Test
+    @DisplayName("1. Registry should build metadata once and return the same instance afterwards")
+    void test1() {
+        //When
+        var first = EntityMetadataRegistry.getMetadata(Book.class);
+        var second = EntityMetadataRegistry.getMetadata(Book.class);
+
+        //Then
+        assertSame(first, second);
+        assertTrue(EntityMetadataRegistry.isRegistered(Book.class));
+    }
+
+    @Test
+    @DisplayName("2. Numeric id should be left out of the insert columns and the statement")
+    void test2() {
+        //When
+        var metadata = EntityMetadataRegistry.getMetadata(Book.class);
+
+        //Then
+        assertAll(
+                () -> assertEquals("books", metadata.getTableName()),
+                () -> assertTrue(metadata.isNumericId()),
+                () -> assertEquals("id", metadata.getIdColumnName()),
+                () -> assertEquals("INSERT INTO books(title,published_at,publisher_id) VALUES(?,?,?);", metadata.getInsertSql()),
+                () -> assertEquals("UPDATE books SET title = ?, published_at = ?, publisher_id = COALESCE(?, publisher_id) WHERE id = ?",
+                        metadata.getUpdateByIdSql()),
+                () -> assertEquals("UPDATE books SET title = ?, publisher_id = COALESCE(?, publisher_id) WHERE id = ?",
+                        metadata.getUpdateByIdSql(0b101)),
+                () -> assertEquals("SELECT id, title, published_at, publisher_id FROM books WHERE id = ?", metadata.getSelectByIdSql()),
+                () -> assertEquals(4, metadata.getSelectIndex("publisher_id")),
+                () -> assertEquals("DELETE FROM books WHERE id = ?", metadata.getDeleteByIdSql()),
+                () -> assertEquals("DELETE FROM books WHERE id IN (?, ?, ?)", metadata.getDeleteByIdsSql(3)),
+                () -> assertTrue(metadata.isChild()),
+                () -> assertFalse(metadata.isParent())
+        );
+    }
+
+    @Test
+    @DisplayName("3. UUID id should be bound first by the insert statement")
+    void test3() {
+        //When
+        var metadata = EntityMetadataRegistry.getMetadata(TestClassBookWithUuidId.class);
+
+        //Then
+        assertFalse(metadata.isNumericId());
+        assertEquals("INSERT INTO booksWithUuidId(id,title,published_at,publisherWithUuidId_id) VALUES(?,?,?,?);", metadata.getInsertSql());
+    }
+
+    @Test
+    @DisplayName("4. OneToMany relationship should resolve element type and mappedBy")
+    void test4() {
+        //When
+        var relationship = EntityMetadataRegistry.getMetadata(Publisher.class).getOneToMany().orElseThrow();
+
+        //Then
+        assertEquals(Book.class, relationship.getTargetClass());
+        assertEquals("publisher", relationship.getMappedBy());
+    }
+
+    @Test
+    @DisplayName("5. Id accessors should read and write the id field")
+    void test5() {
+        //Given
+        var metadata = EntityMetadataRegistry.getMetadata(TestClassBookWithUuidId.class);
+        var book = new TestClassBookWithUuidId("title", LocalDate.now());
+        var id = UUID.randomUUID();
+
+        //When
+        metadata.setId(book, id);
+
+        //Then
+        assertEquals(id, metadata.getId(book));
+    }
+
+    @Test
+    @DisplayName("6. Class without id should fail only when the id field is requested")
+    void test6() {
+        //When
+        var metadata = EntityMetadataRegistry.getMetadata(NoIdClass.class);
+
+        //Then
+        assertFalse(metadata.hasIdColumn());
+        assertNull(metadata.getId(new NoIdClass()));
+        assertThrows(OrmFieldTypeException.class, metadata::getIdField);
+    }
+
+    static class NoIdClass {
+        private String name;
+    }
+}
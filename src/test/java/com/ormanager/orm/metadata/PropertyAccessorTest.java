@@ -0,0 +1,61 @@
+package com.ormanager.orm.metadata;
+
+import com.ormanager.orm.exception.OrmFieldTypeException;
+import com.ormanager.orm.test_entities.AllFieldsClass;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyAccessorTest {
+
+    private static PropertyAccessor accessorFor(String fieldName) throws NoSuchFieldException {
+        return PropertyAccessor.of(AllFieldsClass.class.getDeclaredField(fieldName));
+    }
+
+    @Test
+    @DisplayName("1. Typed accessors should read and write private primitive fields")
+    void test1() throws NoSuchFieldException {
+        //Given
+        var entity = new AllFieldsClass();
+
+        //When
+        accessorFor("intTest").setInt(entity, 7);
+        accessorFor("longTest").setLong(entity, 8L);
+        accessorFor("doubleTest").setDouble(entity, 9.5d);
+        accessorFor("booleanTest").setBoolean(entity, true);
+
+        //Then
+        assertAll(
+                () -> assertEquals(7, entity.getIntTest()),
+                () -> assertEquals(8L, accessorFor("longTest").getLong(entity)),
+                () -> assertEquals(9.5d, accessorFor("doubleTest").getDouble(entity)),
+                () -> assertTrue(accessorFor("booleanTest").getBoolean(entity))
+        );
+    }
+
+    @Test
+    @DisplayName("2. Generic accessors should read and write reference fields")
+    void test2() throws NoSuchFieldException {
+        //Given
+        var entity = new AllFieldsClass();
+        var accessor = accessorFor("stringTest");
+
+        //When
+        accessor.set(entity, "text");
+
+        //Then
+        assertEquals("text", accessor.get(entity));
+        assertEquals("text", entity.getStringTest());
+    }
+
+    @Test
+    @DisplayName("3. Wrong value type should be reported as OrmFieldTypeException")
+    void test3() throws NoSuchFieldException {
+        //Given
+        var entity = new AllFieldsClass();
+
+        //Then
+        assertThrows(OrmFieldTypeException.class, () -> accessorFor("intTest").set(entity, "not a number"));
+    }
+}